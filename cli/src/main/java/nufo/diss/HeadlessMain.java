@@ -0,0 +1,453 @@
+package nufo.diss;
+
+import nufo.diss.generators.ExponentialGenerator;
+import nufo.diss.generators.TriangularGenerator;
+import nufo.diss.generators.VariateTape;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line entry point for batch experiments. Runs the simulation in virtual time without ever touching AWT,
+ * Swing or JFreeChart, prints the progress to the standard error and writes the final results as JSON and CSV.
+ */
+public class HeadlessMain {
+    private static final String USAGE = """
+            Usage: HeadlessMain [options]
+              --replications <n>       number of replications, the upper bound with --precision or --time-budget
+                                       (default 1000, or 1000000 with a stopping policy)
+              --groups <a,b,c>         sizes of carpenter groups A, B and C (default 2,2,18)
+              --horizon <seconds>      simulated time of one replication (default 249 working days)
+              --seed <seed>            master seed, runs of different configurations with the same seed use common
+                                       random numbers
+              --antithetic <on|off>    run the replications in antithetic pairs (default off)
+              --parallelism <n>        number of replications run at once (default number of processors)
+              --generator-block <n>    draw the random values in blocks of n, the same values as without blocks
+                                       (default 0, no blocks)
+              --exponential <inversion|ziggurat>
+                                       algorithm of the order arrivals (default inversion)
+              --triangular <inversion|minmax>
+                                       algorithm of the move and material preparation times (default inversion)
+              --record-tapes <dir>     record every random value drawn in every replication on tapes in the directory
+              --replay-tapes <dir>     replay the random values from the tapes in the directory, sampled live where
+                                       they end
+              --json <file>            write the results as JSON, printed to the standard output without --json and --csv,
+                                       only JSON has the time orders spend in each state
+              --csv <file>             write the results as CSV
+              --replication-store <file>
+                                       keep the order working time, not yet started orders and workloads of every
+                                       replication in a memory-mapped columnar file for later analysis
+              --precision <fraction>   stop once the confidence intervals of the order working time and group
+                                       workloads are at most this fraction of their means, e.g. 0.01
+              --time-budget <seconds>  stop once the wall-clock time is used up
+              --checkpoint <file>      periodically save the progress to the file
+              --checkpoint-interval <seconds>
+                                       time between two checkpoints (default 60)
+              --resume <file>          continue the run saved in the checkpoint file
+              --warmup <none|mser5>    leave the initial transient of every replication out of the results, detected
+                                       with MSER-5 on the order working times (default none)
+              --batch-means <nbm|obm>  run one replication of the whole horizon instead, confidence intervals from
+                                       non-overlapping or overlapping batch means
+              --batch-interval <seconds>
+                                       simulated length of the intervals grouped into batches (default one
+                                       working day)""";
+
+    private Integer numberOfReplications = null;
+    private double precision = Double.NaN;
+    private double timeBudget = Double.NaN;
+    private int groupASize = 2;
+    private int groupBSize = 2;
+    private int groupCSize = 18;
+    private double horizon = 249 * 8 * 60 * 60 - 1;
+    private Long seed = null;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int generatorBlockSize = 0;
+    private ExponentialGenerator.Algorithm exponentialAlgorithm = ExponentialGenerator.Algorithm.INVERSION;
+    private TriangularGenerator.Algorithm triangularAlgorithm = TriangularGenerator.Algorithm.INVERSION;
+    private Path tapeDirectory = null;
+    private VariateTape.Mode tapeMode = null;
+    private Path jsonFile = null;
+    private Path csvFile = null;
+    private Path replicationStoreFile = null;
+    private Path checkpointFile = null;
+    private double checkpointInterval = 60;
+    private Path resumeFile = null;
+    private boolean warmupDetection = false;
+    private boolean antitheticVariates = false;
+    private BatchMeans.Method batchMeansMethod = null;
+    private double batchInterval = 8 * 60 * 60;
+
+    private FurnitureSimulation.ReplicationData result;
+    private int reportedPercent = -1;
+    private int reportedReplications = 0;
+    private StoppingPolicy.StopReason stopReason;
+
+    public static void main(String[] args) {
+        HeadlessMain main = new HeadlessMain();
+        try {
+            main.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        main.run();
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                System.out.println(USAGE);
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value of option " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--replications" -> numberOfReplications = Integer.parseInt(value);
+                    case "--groups" -> {
+                        String[] sizes = value.split(",");
+                        if (sizes.length != 3) {
+                            throw new IllegalArgumentException("Expected three group sizes but got " + value);
+                        }
+                        groupASize = Integer.parseInt(sizes[0].trim());
+                        groupBSize = Integer.parseInt(sizes[1].trim());
+                        groupCSize = Integer.parseInt(sizes[2].trim());
+                    }
+                    case "--horizon" -> horizon = Double.parseDouble(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--parallelism" -> parallelism = Integer.parseInt(value);
+                    case "--generator-block" -> generatorBlockSize = Integer.parseInt(value);
+                    case "--record-tapes", "--replay-tapes" -> {
+                        if (tapeDirectory != null) {
+                            throw new IllegalArgumentException("Tapes can be either recorded or replayed.");
+                        }
+                        tapeDirectory = Path.of(value);
+                        tapeMode = option.equals("--record-tapes") ? VariateTape.Mode.RECORD : VariateTape.Mode.REPLAY;
+                    }
+                    case "--exponential" -> exponentialAlgorithm = switch (value) {
+                        case "inversion" -> ExponentialGenerator.Algorithm.INVERSION;
+                        case "ziggurat" -> ExponentialGenerator.Algorithm.ZIGGURAT;
+                        default -> throw new IllegalArgumentException("Unknown exponential algorithm " + value);
+                    };
+                    case "--triangular" -> triangularAlgorithm = switch (value) {
+                        case "inversion" -> TriangularGenerator.Algorithm.INVERSION;
+                        case "minmax" -> TriangularGenerator.Algorithm.MIN_MAX;
+                        default -> throw new IllegalArgumentException("Unknown triangular algorithm " + value);
+                    };
+                    case "--json" -> jsonFile = Path.of(value);
+                    case "--csv" -> csvFile = Path.of(value);
+                    case "--replication-store" -> replicationStoreFile = Path.of(value);
+                    case "--precision" -> precision = Double.parseDouble(value);
+                    case "--time-budget" -> timeBudget = Double.parseDouble(value);
+                    case "--checkpoint" -> checkpointFile = Path.of(value);
+                    case "--checkpoint-interval" -> checkpointInterval = Double.parseDouble(value);
+                    case "--resume" -> resumeFile = Path.of(value);
+                    case "--antithetic" -> antitheticVariates = switch (value) {
+                        case "on" -> true;
+                        case "off" -> false;
+                        default -> throw new IllegalArgumentException("Expected on or off but got " + value);
+                    };
+                    case "--warmup" -> warmupDetection = switch (value) {
+                        case "none" -> false;
+                        case "mser5" -> true;
+                        default -> throw new IllegalArgumentException("Unknown warm-up detection " + value);
+                    };
+                    case "--batch-means" -> batchMeansMethod = switch (value) {
+                        case "nbm" -> BatchMeans.Method.NON_OVERLAPPING;
+                        case "obm" -> BatchMeans.Method.OVERLAPPING;
+                        default -> throw new IllegalArgumentException("Unknown batch means method " + value);
+                    };
+                    case "--batch-interval" -> batchInterval = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value of option " + option + ": " + value);
+            }
+        }
+
+        if (batchMeansMethod != null) {
+            if (numberOfReplications != null && numberOfReplications != 1) {
+                throw new IllegalArgumentException("Batch means run a single replication, --replications can not be " + numberOfReplications);
+            }
+            if (!Double.isNaN(precision) || !Double.isNaN(timeBudget)) {
+                throw new IllegalArgumentException("Batch means can not be combined with --precision or --time-budget.");
+            }
+            if (batchInterval <= 0 || batchInterval > horizon) {
+                throw new IllegalArgumentException("Batch interval must be positive and at most the horizon but is " + batchInterval);
+            }
+            numberOfReplications = 1;
+        }
+        if (numberOfReplications == null) {
+            numberOfReplications = Double.isNaN(precision) && Double.isNaN(timeBudget) ? 1000 : 1_000_000;
+        }
+        if (numberOfReplications < 1) {
+            throw new IllegalArgumentException("Number of replications must be at least 1 but is " + numberOfReplications);
+        }
+        if (groupASize < 1 || groupBSize < 1 || groupCSize < 1) {
+            throw new IllegalArgumentException("Every group needs at least one carpenter.");
+        }
+        if (horizon <= 0) {
+            throw new IllegalArgumentException("Horizon must be positive but is " + horizon);
+        }
+        if (!Double.isNaN(precision) && precision <= 0) {
+            throw new IllegalArgumentException("Precision must be positive but is " + precision);
+        }
+        if (!Double.isNaN(timeBudget) && timeBudget <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive but is " + timeBudget);
+        }
+        if (generatorBlockSize < 0) {
+            throw new IllegalArgumentException("Generator block size must not be negative but is " + generatorBlockSize);
+        }
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive but is " + checkpointInterval);
+        }
+    }
+
+    private void run() {
+        FurnitureSimulation simulation = new FurnitureSimulation(numberOfReplications, EventSimulation.TimeMode.VIRTUAL_TIME, horizon, groupASize, groupBSize, groupCSize);
+        simulation.setParallelism(parallelism);
+        simulation.setMasterSeed(seed);
+        simulation.setGeneratorBlockSize(generatorBlockSize);
+        simulation.setSamplingAlgorithms(exponentialAlgorithm, triangularAlgorithm);
+        simulation.setVariateTapes(tapeDirectory, tapeMode);
+        simulation.setConsumer(this::consume);
+        simulation.setStoppingPolicy(createStoppingPolicy());
+        simulation.setWarmupDetection(warmupDetection);
+        simulation.setAntitheticVariates(antitheticVariates);
+        simulation.setReplicationStoreFile(replicationStoreFile);
+        if (batchMeansMethod != null) {
+            simulation.setBatchMeans(batchInterval, batchMeansMethod);
+        }
+        if (checkpointFile != null) {
+            simulation.setCheckpointing(checkpointFile, Duration.ofMillis((long) (checkpointInterval * 1000)));
+        }
+        if (resumeFile != null) {
+            try {
+                simulation.resumeFrom(resumeFile);
+            } catch (IOException e) {
+                System.err.println("Can not resume from " + resumeFile + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        long start = System.nanoTime();
+        simulation.run();
+        stopReason = simulation.getStopReason();
+        System.err.printf(Locale.ROOT, "Finished %d replications in %.1f s, stopped by %s%n", simulation.getRecordedReplications(), (System.nanoTime() - start) / 1e9, stopReason);
+        System.err.printf(Locale.ROOT, "Master seed %d%n", simulation.getMasterSeed());
+        if (batchMeansMethod != null) {
+            System.err.printf(Locale.ROOT, "Batch means over %d intervals, order working time batch size %d%n", (int) (horizon / batchInterval), simulation.getOrderWorkingTimeBatchSize());
+        }
+
+        ReplicationStore replicationStore = simulation.getReplicationStore();
+        if (replicationStore != null) {
+            System.err.printf(Locale.ROOT, "Stored %d replications in %s%n", replicationStore.getRowCount(), replicationStoreFile);
+            try {
+                replicationStore.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        if (result == null) {
+            System.err.println("No replication finished, nothing to write.");
+            System.exit(1);
+        }
+
+        try {
+            if (jsonFile == null && csvFile == null) {
+                writeJson(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+            }
+            if (jsonFile != null) {
+                try (Writer writer = Files.newBufferedWriter(jsonFile)) {
+                    writeJson(writer);
+                }
+            }
+            if (csvFile != null) {
+                try (Writer writer = Files.newBufferedWriter(csvFile)) {
+                    writeCsv(writer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private StoppingPolicy createStoppingPolicy() {
+        Duration budget = Double.isNaN(timeBudget) ? null : Duration.ofMillis((long) (timeBudget * 1000));
+        if (!Double.isNaN(precision) && budget != null) {
+            return StoppingPolicy.relativePrecisionOrTimeBudget(precision, budget);
+        }
+        if (!Double.isNaN(precision)) {
+            return StoppingPolicy.relativePrecision(precision);
+        }
+        if (budget != null) {
+            return StoppingPolicy.timeBudget(budget);
+        }
+        return StoppingPolicy.fixedReplications();
+    }
+
+    private void consume(SimulationCore.ConsumerData data) {
+        if (data.stateChangeType() != SimulationCore.StateChangeType.EXPERIMENT) {
+            return;
+        }
+
+        result = (FurnitureSimulation.ReplicationData) data.data();
+
+        int doneReplications = result.numberOfDoneReplications();
+        if (Double.isNaN(precision) && Double.isNaN(timeBudget)) {
+            int percent = (int) (100L * doneReplications / numberOfReplications);
+            if (percent / 10 > reportedPercent / 10) {
+                reportedPercent = percent;
+                System.err.printf(Locale.ROOT, "Replication %d/%d (%d%%)%n", doneReplications, numberOfReplications, percent);
+            }
+        } else if (doneReplications / 100 > reportedReplications / 100) {
+            reportedReplications = doneReplications;
+            Statistics.Data orderWorkingTime = result.orderWorkingTime();
+            double relativeHalfWidth = (orderWorkingTime.confidenceIntervalUpperBound() - orderWorkingTime.confidenceIntervalLowerBound()) / 2 / orderWorkingTime.mean();
+            System.err.printf(Locale.ROOT, "Replication %d, order working time within %.2f%%%n", doneReplications, relativeHalfWidth * 100);
+        }
+    }
+
+    private void writeJson(Appendable out) throws IOException {
+        out.append("{\n");
+        out.append("  \"replications\": ").append(String.valueOf(result.numberOfDoneReplications())).append(",\n");
+        out.append("  \"stopReason\": \"").append(stopReason.name()).append("\",\n");
+        if (batchMeansMethod != null) {
+            out.append("  \"batchMeans\": \"").append(batchMeansMethod.name()).append("\",\n");
+        }
+        out.append("  \"orderWorkingTime\": ").append(toJson(result.orderWorkingTime())).append(",\n");
+        out.append("  \"orderWorkingTimeControlled\": ").append(toJson(result.orderWorkingTimeControlled())).append(",\n");
+        out.append("  \"orderWorkingTimeP95\": ").append(toJson(result.orderWorkingTimeP95())).append(",\n");
+        out.append("  \"orderWorkingTimeP99\": ").append(toJson(result.orderWorkingTimeP99())).append(",\n");
+        out.append("  \"notYetStartedWorkOrders\": ").append(toJson(result.notYetStartedWorkOrders())).append(",\n");
+        if (warmupDetection) {
+            out.append("  \"warmupTime\": ").append(toJson(result.warmupTime())).append(",\n");
+        }
+
+        out.append("  \"averageQueueLengths\": {");
+        String separator = "\n";
+        for (FurnitureSimulation.Order.State state : FurnitureSimulation.Order.State.queueValues()) {
+            out.append(separator).append("    \"").append(state.name()).append("\": ").append(toJson(result.averageQueueLengths().get(state)));
+            separator = ",\n";
+        }
+        out.append("\n  },\n");
+
+        out.append("  \"averageOccupiedWorkplaces\": ").append(toJson(result.averageOccupiedWorkplaces())).append(",\n");
+
+        out.append("  \"averageBusyCarpenters\": {");
+        separator = "\n";
+        for (FurnitureSimulation.Carpenter.Group group : FurnitureSimulation.Carpenter.Group.values()) {
+            out.append(separator).append("    \"").append(group.name()).append("\": ").append(toJson(result.averageBusyCarpenters().get(group)));
+            separator = ",\n";
+        }
+        out.append("\n  },\n");
+
+        out.append("  \"groupWorkloads\": {");
+        separator = "\n";
+        for (FurnitureSimulation.Carpenter.Group group : FurnitureSimulation.Carpenter.Group.values()) {
+            out.append(separator).append("    \"").append(group.name()).append("\": ").append(toJson(result.carpenterGroupWorkloads().get(group)));
+            separator = ",\n";
+        }
+        out.append("\n  },\n");
+
+        out.append("  \"carpenterWorkloads\": [");
+        separator = "\n";
+        for (Map.Entry<FurnitureSimulation.Carpenter.Data, Statistics.Data> entry : sortedCarpenterWorkloads()) {
+            out.append(separator)
+                    .append("    {\"id\": ").append(String.valueOf(entry.getKey().id()))
+                    .append(", \"group\": \"").append(entry.getKey().group().name())
+                    .append("\", \"workload\": ").append(toJson(entry.getValue())).append("}");
+            separator = ",\n";
+        }
+        out.append("\n  ],\n");
+
+        out.append("  \"stageTimes\": {");
+        separator = "\n";
+        for (FurnitureSimulation.Order.Type type : FurnitureSimulation.Order.Type.values()) {
+            out.append(separator).append("    \"").append(type.name()).append("\": {");
+            String stageSeparator = "\n";
+            for (FurnitureSimulation.Order.State state : FurnitureSimulation.Order.State.values()) {
+                LogHistogram.Data stageTime = result.stageTimes().get(type).get(state);
+                if (stageTime != null) {
+                    out.append(stageSeparator).append("      \"").append(state.name()).append("\": ").append(toJson(stageTime));
+                    stageSeparator = ",\n";
+                }
+            }
+            out.append("\n    }");
+            separator = ",\n";
+        }
+        out.append("\n  }\n");
+        out.append("}\n");
+    }
+
+    private void writeCsv(Appendable out) throws IOException {
+        out.append("metric,mean,confidenceIntervalLowerBound,confidenceIntervalUpperBound\n");
+        appendCsvRow(out, "orderWorkingTime", result.orderWorkingTime());
+        appendCsvRow(out, "orderWorkingTimeControlled", result.orderWorkingTimeControlled());
+        appendCsvRow(out, "orderWorkingTimeP95", result.orderWorkingTimeP95());
+        appendCsvRow(out, "orderWorkingTimeP99", result.orderWorkingTimeP99());
+        appendCsvRow(out, "notYetStartedWorkOrders", result.notYetStartedWorkOrders());
+        if (warmupDetection) {
+            appendCsvRow(out, "warmupTime", result.warmupTime());
+        }
+        for (FurnitureSimulation.Order.State state : FurnitureSimulation.Order.State.queueValues()) {
+            appendCsvRow(out, "averageQueueLength." + state.name(), result.averageQueueLengths().get(state));
+        }
+        appendCsvRow(out, "averageOccupiedWorkplaces", result.averageOccupiedWorkplaces());
+        for (FurnitureSimulation.Carpenter.Group group : FurnitureSimulation.Carpenter.Group.values()) {
+            appendCsvRow(out, "averageBusyCarpenters." + group.name(), result.averageBusyCarpenters().get(group));
+        }
+        for (FurnitureSimulation.Carpenter.Group group : FurnitureSimulation.Carpenter.Group.values()) {
+            appendCsvRow(out, "groupWorkload." + group.name(), result.carpenterGroupWorkloads().get(group));
+        }
+        for (Map.Entry<FurnitureSimulation.Carpenter.Data, Statistics.Data> entry : sortedCarpenterWorkloads()) {
+            appendCsvRow(out, "carpenterWorkload." + entry.getKey().id(), entry.getValue());
+        }
+    }
+
+    private Iterable<Map.Entry<FurnitureSimulation.Carpenter.Data, Statistics.Data>> sortedCarpenterWorkloads() {
+        return result.carpenterWorkloads().entrySet()
+                .stream()
+                .sorted(Comparator.comparingInt(e -> e.getKey().id()))
+                .toList();
+    }
+
+    private static void appendCsvRow(Appendable out, String metric, Statistics.Data data) throws IOException {
+        out.append(metric).append(',')
+                .append(toNumber(data.mean(), "")).append(',')
+                .append(toNumber(data.confidenceIntervalLowerBound(), "")).append(',')
+                .append(toNumber(data.confidenceIntervalUpperBound(), "")).append('\n');
+    }
+
+    private static String toJson(Statistics.Data data) {
+        return "{\"mean\": " + toNumber(data.mean(), "null") +
+                ", \"confidenceIntervalLowerBound\": " + toNumber(data.confidenceIntervalLowerBound(), "null") +
+                ", \"confidenceIntervalUpperBound\": " + toNumber(data.confidenceIntervalUpperBound(), "null") + "}";
+    }
+
+    private static String toJson(LogHistogram.Data data) {
+        return "{\"count\": " + data.count() +
+                ", \"median\": " + toNumber(data.median(), "null") +
+                ", \"p95\": " + toNumber(data.p95(), "null") +
+                ", \"p99\": " + toNumber(data.p99(), "null") +
+                ", \"max\": " + toNumber(data.max(), "null") + "}";
+    }
+
+    private static String toNumber(double value, String missing) {
+        return Double.isFinite(value) ? Double.toString(value) : missing;
+    }
+}
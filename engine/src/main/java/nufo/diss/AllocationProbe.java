@@ -0,0 +1,74 @@
+package nufo.diss;
+
+import java.lang.management.ManagementFactory;
+
+class AllocationProbe {
+    // Rare JVM-internal allocations (class loading, deoptimization) are seen by the counter too, they stay far below
+    // this in an experiment. A single allocation per event is at least 16 bytes per event.
+    static final long ALLOCATED_BYTES_BUDGET = 1024;
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private long startAllocatedBytes;
+    private long startExecutedEvents;
+    private long startCapacityGrowth;
+    private boolean started;
+    private int checkedExperiments;
+    private int skippedExperiments;
+    private long maxAllocatedBytes;
+
+    AllocationProbe() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Thread allocation counters are not supported by this JVM.");
+        }
+        bean.setThreadAllocatedMemoryEnabled(true);
+        this.threadMXBean = bean;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    void start(long executedEvents, long capacityGrowth) {
+        startExecutedEvents = executedEvents;
+        startCapacityGrowth = capacityGrowth;
+        started = true;
+        startAllocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+
+    void check(long executedEvents, long capacityGrowth) {
+        if (!started) {
+            return;
+        }
+        long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+        started = false;
+
+        if (capacityGrowth != startCapacityGrowth) {
+            skippedExperiments++;
+            return;
+        }
+        checkedExperiments++;
+
+        maxAllocatedBytes = Math.max(maxAllocatedBytes, allocatedBytes);
+        if (allocatedBytes > ALLOCATED_BYTES_BUDGET) {
+            throw new IllegalStateException(String.format(
+                    "Event loop allocated %d bytes in %d steady-state events, more than the budget of %d bytes.",
+                    allocatedBytes,
+                    executedEvents - startExecutedEvents,
+                    ALLOCATED_BYTES_BUDGET
+            ));
+        }
+    }
+
+    int getCheckedExperiments() {
+        return checkedExperiments;
+    }
+
+    int getSkippedExperiments() {
+        return skippedExperiments;
+    }
+
+    long getMaxAllocatedBytes() {
+        return maxAllocatedBytes;
+    }
+}
@@ -0,0 +1,12 @@
+package nufo.diss;
+
+class BatchIntervalEvent extends Event {
+    BatchIntervalEvent(EventSimulation simulation) {
+        super(simulation, 0.0);
+    }
+
+    @Override
+    public void execute() {
+        simulation.endBatchInterval(executionTime);
+    }
+}
@@ -0,0 +1,145 @@
+package nufo.diss;
+
+import java.util.Arrays;
+
+/**
+ * Confidence interval of a steady-state mean from one long run. The run is cut into base intervals of equal simulated
+ * length and the running totals of the quantity are recorded at the end of each of them, consecutive intervals are
+ * then grouped into batches whose means are treated as independent observations.
+ * <p>
+ * The batch size is the smallest power of two for which the lag 1 autocorrelation of the non-overlapping batch means
+ * is not significant while there are still at least {@link #MINIMUM_NUMBER_OF_BATCHES} batches. Leading intervals
+ * that do not fill a whole batch are left out, they are the ones closest to the initial transient.
+ */
+public class BatchMeans {
+    public static final int MINIMUM_NUMBER_OF_BATCHES = 20;
+    private static final double CONFIDENCE_LEVEL = 0.95;
+    private static final double AUTOCORRELATION_SIGNIFICANCE_LEVEL = 0.05;
+
+    // Running totals at the end of every interval, index 0 holds the zero totals at the start of the run.
+    private double[] sums = new double[64];
+    private double[] weights = new double[64];
+    private int intervals = 0;
+
+    /**
+     * Records the running totals at the end of the next interval, e.g. the sum and the number of observed values or
+     * the integral of a time-weighted quantity and the elapsed time.
+     */
+    public void addTotals(double sum, double weight) {
+        if (intervals + 1 == sums.length) {
+            sums = Arrays.copyOf(sums, sums.length * 2);
+            weights = Arrays.copyOf(weights, weights.length * 2);
+        }
+        intervals++;
+        sums[intervals] = sum;
+        weights[intervals] = weight;
+    }
+
+    /**
+     * Records a single value observed at the end of the next interval.
+     */
+    public void addValue(double value) {
+        addTotals(sums[intervals] + value, weights[intervals] + 1);
+    }
+
+    public int getNumberOfIntervals() {
+        return intervals;
+    }
+
+    public int getBatchSize() {
+        int batchSize = 1;
+        while (intervals / (batchSize * 2) >= MINIMUM_NUMBER_OF_BATCHES && !isUncorrelated(batchSize)) {
+            batchSize *= 2;
+        }
+        return batchSize;
+    }
+
+    /**
+     * False if the run is too short for a batch size that passes the autocorrelation test, the interval is then
+     * likely too narrow.
+     */
+    public boolean isBatchSizeAccepted() {
+        int batchSize = getBatchSize();
+        return intervals / batchSize >= MINIMUM_NUMBER_OF_BATCHES && isUncorrelated(batchSize);
+    }
+
+    public Statistics.Data toData(Method method) {
+        int batchSize = getBatchSize();
+        int numberOfBatches = intervals / batchSize;
+        int first = intervals - numberOfBatches * batchSize;
+        double mean = mean(first, intervals);
+
+        if (numberOfBatches < 2) {
+            return new Statistics.Data(mean, Double.NaN, Double.NaN);
+        }
+
+        double halfWidth = switch (method) {
+            case NON_OVERLAPPING -> {
+                double sumOfSquaredDeviations = 0.0;
+                for (int i = first; i < intervals; i += batchSize) {
+                    double deviation = mean(i, i + batchSize) - mean;
+                    sumOfSquaredDeviations += deviation * deviation;
+                }
+                double variance = sumOfSquaredDeviations / ((double) (numberOfBatches - 1) * numberOfBatches);
+                yield Statistics.studentTQuantile(1 - CONFIDENCE_LEVEL, numberOfBatches - 1) * Math.sqrt(variance);
+            }
+            case OVERLAPPING -> {
+                // Meketon and Schmeiser, every window of batchSize consecutive intervals is a batch.
+                int n = numberOfBatches * batchSize;
+                double sumOfSquaredDeviations = 0.0;
+                for (int i = first; i + batchSize <= intervals; i++) {
+                    double deviation = mean(i, i + batchSize) - mean;
+                    sumOfSquaredDeviations += deviation * deviation;
+                }
+                double variance = batchSize * sumOfSquaredDeviations / ((double) (n - batchSize + 1) * (n - batchSize));
+                int degreesOfFreedom = Math.max(1, (int) (1.5 * (numberOfBatches - 1)));
+                yield Statistics.studentTQuantile(1 - CONFIDENCE_LEVEL, degreesOfFreedom) * Math.sqrt(variance);
+            }
+        };
+
+        return new Statistics.Data(mean, mean - halfWidth, mean + halfWidth);
+    }
+
+    public void reset() {
+        intervals = 0;
+    }
+
+    private boolean isUncorrelated(int batchSize) {
+        int numberOfBatches = intervals / batchSize;
+        // Lag 1 autocorrelation of independent means is approximately normal with variance 1 / numberOfBatches.
+        return lagOneAutocorrelation(batchSize) <= Statistics.normalQuantile(1 - AUTOCORRELATION_SIGNIFICANCE_LEVEL) / Math.sqrt(numberOfBatches);
+    }
+
+    private double lagOneAutocorrelation(int batchSize) {
+        int numberOfBatches = intervals / batchSize;
+        int first = intervals - numberOfBatches * batchSize;
+
+        double meanOfBatchMeans = 0.0;
+        for (int i = first; i < intervals; i += batchSize) {
+            meanOfBatchMeans += mean(i, i + batchSize);
+        }
+        meanOfBatchMeans /= numberOfBatches;
+
+        double covariance = 0.0;
+        double variance = 0.0;
+        double previousDeviation = Double.NaN;
+        for (int i = first; i < intervals; i += batchSize) {
+            double deviation = mean(i, i + batchSize) - meanOfBatchMeans;
+            if (i > first) {
+                covariance += previousDeviation * deviation;
+            }
+            variance += deviation * deviation;
+            previousDeviation = deviation;
+        }
+        return covariance / variance;
+    }
+
+    private double mean(int from, int to) {
+        return (sums[to] - sums[from]) / (weights[to] - weights[from]);
+    }
+
+    public enum Method {
+        NON_OVERLAPPING,
+        OVERLAPPING
+    }
+}
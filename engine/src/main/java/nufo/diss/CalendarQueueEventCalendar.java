@@ -0,0 +1,193 @@
+package nufo.diss;
+
+import java.util.Arrays;
+
+/**
+ * Calendar queue as described by R. Brown (1988). Events are hashed by their execution time into buckets
+ * of fixed width, every bucket is a sorted linked list threaded through the events themselves, and the
+ * number of buckets is doubled or halved together with the number of events, so scheduling and polling
+ * are amortised O(1) while the order of events stays the same as in {@link HeapEventCalendar}. Bucket
+ * arrays are kept for reuse, so resizing only allocates when the calendar grows beyond its previous maximum.
+ */
+public class CalendarQueueEventCalendar implements EventCalendar {
+    private static final int MIN_BUCKETS = 2;
+    private static final int WIDTH_SAMPLE_SIZE = 25;
+
+    private final Event[][] bucketArrays;
+    private final Event[] widthSample;
+    private Event[] resizeBuffer;
+    private Event[] buckets;
+    private double width;
+    private long currentBucket;
+    private int size;
+
+    public CalendarQueueEventCalendar() {
+        this.bucketArrays = new Event[Integer.SIZE][];
+        this.widthSample = new Event[WIDTH_SAMPLE_SIZE];
+        this.resizeBuffer = new Event[0];
+        this.buckets = bucketArray(MIN_BUCKETS);
+        this.width = 1.0;
+        this.currentBucket = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public void add(Event event) {
+        long bucket = bucketOf(event.getExecutionTime());
+        if (size == 0 || bucket < currentBucket) {
+            currentBucket = bucket;
+        }
+
+        insert(event, bucket);
+        size++;
+
+        if (size > 2 * buckets.length) {
+            resize(2 * buckets.length);
+        }
+    }
+
+    @Override
+    public Event poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        for (int i = 0; i < buckets.length; i++) {
+            int index = indexOf(currentBucket);
+            Event head = buckets[index];
+            if (head != null && bucketOf(head.getExecutionTime()) == currentBucket) {
+                return removeHead(index);
+            }
+            currentBucket++;
+        }
+
+        // A whole year of buckets is empty, so jump straight to the earliest event.
+        int earliestIndex = -1;
+        for (int i = 0; i < buckets.length; i++) {
+            Event head = buckets[i];
+            if (head != null && (earliestIndex == -1 || head.compareTo(buckets[earliestIndex]) < 0)) {
+                earliestIndex = i;
+            }
+        }
+
+        currentBucket = bucketOf(buckets[earliestIndex].getExecutionTime());
+        return removeHead(earliestIndex);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(buckets, null);
+        currentBucket = 0;
+        size = 0;
+    }
+
+    private void insert(Event event, long bucket) {
+        int index = indexOf(bucket);
+
+        Event previous = null;
+        Event current = buckets[index];
+        while (current != null && current.compareTo(event) <= 0) {
+            previous = current;
+            current = current.nextInCalendar;
+        }
+
+        event.nextInCalendar = current;
+        if (previous == null) {
+            buckets[index] = event;
+        } else {
+            previous.nextInCalendar = event;
+        }
+    }
+
+    private Event removeHead(int index) {
+        Event event = buckets[index];
+        buckets[index] = event.nextInCalendar;
+        event.nextInCalendar = null;
+        size--;
+
+        if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+            resize(buckets.length / 2);
+        }
+
+        return event;
+    }
+
+    private void resize(int numberOfBuckets) {
+        if (resizeBuffer.length < size) {
+            resizeBuffer = new Event[Math.max(size, 2 * resizeBuffer.length)];
+        }
+
+        int count = 0;
+        int sampleSize = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            Event event = buckets[i];
+            while (event != null) {
+                Event next = event.nextInCalendar;
+                event.nextInCalendar = null;
+                resizeBuffer[count++] = event;
+                sampleSize = addToWidthSample(event, sampleSize);
+                event = next;
+            }
+            buckets[i] = null;
+        }
+
+        if (sampleSize >= 2) {
+            double newWidth = 3.0 * (widthSample[sampleSize - 1].getExecutionTime() - widthSample[0].getExecutionTime()) / (sampleSize - 1);
+            if (newWidth > 0.0) {
+                width = newWidth;
+            }
+        }
+
+        buckets = bucketArray(numberOfBuckets);
+        for (int i = 0; i < count; i++) {
+            insert(resizeBuffer[i], bucketOf(resizeBuffer[i].getExecutionTime()));
+            resizeBuffer[i] = null;
+        }
+
+        if (sampleSize > 0) {
+            currentBucket = bucketOf(widthSample[0].getExecutionTime());
+        }
+        Arrays.fill(widthSample, null);
+    }
+
+    private int addToWidthSample(Event event, int sampleSize) {
+        if (sampleSize == WIDTH_SAMPLE_SIZE && event.compareTo(widthSample[sampleSize - 1]) >= 0) {
+            return sampleSize;
+        }
+
+        int i = Math.min(sampleSize, WIDTH_SAMPLE_SIZE - 1);
+        while (i > 0 && event.compareTo(widthSample[i - 1]) < 0) {
+            widthSample[i] = widthSample[i - 1];
+            i--;
+        }
+        widthSample[i] = event;
+
+        return Math.min(sampleSize + 1, WIDTH_SAMPLE_SIZE);
+    }
+
+    private Event[] bucketArray(int numberOfBuckets) {
+        int level = Integer.numberOfTrailingZeros(numberOfBuckets);
+        if (bucketArrays[level] == null) {
+            bucketArrays[level] = new Event[numberOfBuckets];
+        }
+        return bucketArrays[level];
+    }
+
+    private long bucketOf(double time) {
+        return (long) Math.floor(time / width);
+    }
+
+    private int indexOf(long bucket) {
+        return (int) Math.floorMod(bucket, (long) buckets.length);
+    }
+}
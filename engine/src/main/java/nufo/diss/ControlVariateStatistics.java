@@ -0,0 +1,234 @@
+package nufo.diss;
+
+import java.io.Serializable;
+
+/**
+ * Mean of a response corrected by control variates, quantities observed alongside it whose expected values are known.
+ * Every observation is the response together with the deviations of the controls from their expected values. The
+ * estimate is the intercept of the least squares regression of the response on these deviations, the mean response
+ * predicted for controls exactly at their expected values, and its confidence interval is the one of that prediction
+ * with n - q - 1 degrees of freedom for q controls.
+ * <p>
+ * Means and centered cross products are accumulated as in {@link Statistics}, so that instances can be merged.
+ */
+public class ControlVariateStatistics implements Serializable {
+    private static final long serialVersionUID = -1893229595235622559L;
+    private static final double CONFIDENCE_LEVEL = 0.95;
+
+    private int count = 0;
+    // Index 0 is the response, the controls follow.
+    private double[] means;
+    private double[][] crossProducts;
+
+    public void addValue(double response, double[] controlDeviations) {
+        if (means == null) {
+            allocate(controlDeviations.length + 1);
+        }
+        if (controlDeviations.length + 1 != means.length) {
+            throw new IllegalArgumentException("Expected " + (means.length - 1) + " controls but got " + controlDeviations.length);
+        }
+
+        count++;
+        int dimension = means.length;
+        double[] delta = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            delta[i] = (i == 0 ? response : controlDeviations[i - 1]) - means[i];
+            means[i] += delta[i] / count;
+        }
+        for (int i = 0; i < dimension; i++) {
+            double deviation = (i == 0 ? response : controlDeviations[i - 1]) - means[i];
+            for (int j = 0; j < dimension; j++) {
+                crossProducts[j][i] += delta[j] * deviation;
+            }
+        }
+    }
+
+    public void merge(ControlVariateStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            allocate(other.means.length);
+            count = other.count;
+            System.arraycopy(other.means, 0, means, 0, means.length);
+            for (int i = 0; i < means.length; i++) {
+                System.arraycopy(other.crossProducts[i], 0, crossProducts[i], 0, means.length);
+            }
+            return;
+        }
+        if (other.means.length != means.length) {
+            throw new IllegalArgumentException("Expected " + (means.length - 1) + " controls but got " + (other.means.length - 1));
+        }
+
+        int mergedCount = count + other.count;
+        double weight = (double) count * other.count / mergedCount;
+        double[] delta = new double[means.length];
+        for (int i = 0; i < means.length; i++) {
+            delta[i] = other.means[i] - means[i];
+        }
+        for (int i = 0; i < means.length; i++) {
+            for (int j = 0; j < means.length; j++) {
+                crossProducts[i][j] += other.crossProducts[i][j] + delta[i] * delta[j] * weight;
+            }
+            means[i] += delta[i] * other.count / mergedCount;
+        }
+        count = mergedCount;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getNumberOfControls() {
+        return means != null ? means.length - 1 : 0;
+    }
+
+    /**
+     * Mean of the response without the correction.
+     */
+    public double getResponseMean() {
+        return count > 0 ? means[0] : Double.NaN;
+    }
+
+    public double[] getControlDeviationMeans() {
+        double[] controlDeviationMeans = new double[getNumberOfControls()];
+        for (int i = 0; i < controlDeviationMeans.length; i++) {
+            controlDeviationMeans[i] = means[i + 1];
+        }
+        return controlDeviationMeans;
+    }
+
+    /**
+     * Controlled mean, NaN until there are more observations than controls plus one.
+     */
+    public double getMean() {
+        double[] coefficients = getCoefficients();
+        if (coefficients == null) {
+            return Double.NaN;
+        }
+        double mean = means[0];
+        for (int i = 0; i < coefficients.length; i++) {
+            mean -= coefficients[i] * means[i + 1];
+        }
+        return mean;
+    }
+
+    public double getConfidenceIntervalHalfWidth() {
+        double[] coefficients = getCoefficients();
+        if (coefficients == null) {
+            return Double.NaN;
+        }
+        int controls = coefficients.length;
+
+        double residualSumOfSquares = crossProducts[0][0];
+        for (int i = 0; i < controls; i++) {
+            residualSumOfSquares -= coefficients[i] * crossProducts[i + 1][0];
+        }
+        int degreesOfFreedom = count - controls - 1;
+        double residualVariance = Math.max(residualSumOfSquares, 0.0) / degreesOfFreedom;
+
+        // Variance of the regression prediction at zero deviations, 1/n + d' S^-1 d for the mean deviations d.
+        double[] controlDeviationMeans = getControlDeviationMeans();
+        double[] solution = solve(controlCrossProducts(), controlDeviationMeans);
+        if (solution == null) {
+            return Double.NaN;
+        }
+        double leverage = 1.0 / count;
+        for (int i = 0; i < controls; i++) {
+            leverage += controlDeviationMeans[i] * solution[i];
+        }
+
+        return Statistics.studentTQuantile(1 - CONFIDENCE_LEVEL, degreesOfFreedom) * Math.sqrt(residualVariance * leverage);
+    }
+
+    public Statistics.Data toData() {
+        double mean = getMean();
+        double halfWidth = getConfidenceIntervalHalfWidth();
+        return new Statistics.Data(mean, mean - halfWidth, mean + halfWidth);
+    }
+
+    public void reset() {
+        count = 0;
+        means = null;
+        crossProducts = null;
+    }
+
+    private void allocate(int dimension) {
+        means = new double[dimension];
+        crossProducts = new double[dimension][dimension];
+    }
+
+    private double[] getCoefficients() {
+        int controls = getNumberOfControls();
+        if (count <= controls + 1) {
+            return null;
+        }
+        double[] responseCrossProducts = new double[controls];
+        for (int i = 0; i < controls; i++) {
+            responseCrossProducts[i] = crossProducts[i + 1][0];
+        }
+        return solve(controlCrossProducts(), responseCrossProducts);
+    }
+
+    private double[][] controlCrossProducts() {
+        int controls = getNumberOfControls();
+        double[][] matrix = new double[controls][controls];
+        for (int i = 0; i < controls; i++) {
+            System.arraycopy(crossProducts[i + 1], 1, matrix[i], 0, controls);
+        }
+        return matrix;
+    }
+
+    /**
+     * Solves the symmetric positive definite system by Cholesky decomposition after scaling it to unit diagonal, the
+     * controls may differ in magnitude by orders. Returns null if the matrix is singular.
+     */
+    private static double[] solve(double[][] matrix, double[] rightHandSide) {
+        int n = rightHandSide.length;
+        double[] scale = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (!(matrix[i][i] > 0)) {
+                return null;
+            }
+            scale[i] = 1 / Math.sqrt(matrix[i][i]);
+        }
+
+        double[][] lower = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = matrix[i][j] * scale[i] * scale[j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[i][k] * lower[j][k];
+                }
+                if (i == j) {
+                    if (sum <= 1e-12) {
+                        return null;
+                    }
+                    lower[i][i] = Math.sqrt(sum);
+                } else {
+                    lower[i][j] = sum / lower[j][j];
+                }
+            }
+        }
+
+        double[] solution = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = rightHandSide[i] * scale[i];
+            for (int k = 0; k < i; k++) {
+                sum -= lower[i][k] * solution[k];
+            }
+            solution[i] = sum / lower[i][i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = solution[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= lower[k][i] * solution[k];
+            }
+            solution[i] = sum / lower[i][i];
+        }
+        for (int i = 0; i < n; i++) {
+            solution[i] *= scale[i];
+        }
+        return solution;
+    }
+}
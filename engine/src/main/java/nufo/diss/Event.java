@@ -3,6 +3,9 @@ package nufo.diss;
 public abstract class Event implements Comparable<Event> {
     protected final EventSimulation simulation;
     protected double executionTime;
+    long sequenceNumber;
+    Event nextInCalendar;
+    EventPool<?> pool;
 
     public Event(EventSimulation simulation, double executionTime) {
         this.simulation = simulation;
@@ -15,8 +18,19 @@ public abstract class Event implements Comparable<Event> {
         return executionTime;
     }
 
+    protected void setExecutionTime(double executionTime) {
+        this.executionTime = executionTime;
+    }
+
+    void recycle() {
+        if (pool != null) {
+            pool.recycle(this);
+        }
+    }
+
     @Override
     public int compareTo(Event o) {
-        return Double.compare(executionTime, o.executionTime);
+        int result = Double.compare(executionTime, o.executionTime);
+        return result != 0 ? result : Long.compare(sequenceNumber, o.sequenceNumber);
     }
 }
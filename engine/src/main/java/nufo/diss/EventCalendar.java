@@ -0,0 +1,25 @@
+package nufo.diss;
+
+public interface EventCalendar {
+    void add(Event event);
+
+    Event poll();
+
+    boolean isEmpty();
+
+    int size();
+
+    void clear();
+
+    enum Type {
+        BINARY_HEAP,
+        CALENDAR_QUEUE;
+
+        public EventCalendar create() {
+            return switch (this) {
+                case BINARY_HEAP -> new HeapEventCalendar();
+                case CALENDAR_QUEUE -> new CalendarQueueEventCalendar();
+            };
+        }
+    }
+}
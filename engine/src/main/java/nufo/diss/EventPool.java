@@ -0,0 +1,21 @@
+package nufo.diss;
+
+import java.util.function.Supplier;
+
+public class EventPool<E extends Event> extends ObjectPool<E> {
+    public EventPool(EventSimulation simulation, Supplier<E> factory) {
+        super(simulation, factory);
+    }
+
+    @Override
+    protected E create() {
+        E event = super.create();
+        event.pool = this;
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    void recycle(Event event) {
+        release((E) event);
+    }
+}
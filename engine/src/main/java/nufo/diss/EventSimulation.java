@@ -0,0 +1,331 @@
+package nufo.diss;
+
+public abstract class EventSimulation extends SimulationCore {
+    private static final long ALLOCATION_CHECK_WARMUP_EVENTS = 100_000;
+
+    private EventCalendar eventCalendar;
+    private EventCalendar.Type eventCalendarType;
+    private long nextEventSequenceNumber;
+    protected double currentTime;
+    private final double maxTime;
+    private volatile TimeMultiplier timeMultiplier;
+    private volatile TimeMode timeMode;
+    boolean systemEventScheduled;
+    private final SystemEvent systemEvent;
+    private final RealTimePacer realTimePacer;
+    private final BatchIntervalEvent batchIntervalEvent;
+    private double batchIntervalLength;
+    private long executedEvents;
+    private long capacityGrowth;
+    private int eventCalendarHighWaterMark;
+    private AllocationProbe allocationProbe;
+
+    EventSimulation(int numberOfReplications, TimeMode timeMode, double maxTime) {
+        super(numberOfReplications);
+
+        this.maxTime = maxTime;
+        this.eventCalendarType = EventCalendar.Type.BINARY_HEAP;
+        this.eventCalendar = eventCalendarType.create();
+        this.nextEventSequenceNumber = 0;
+        this.currentTime = 0.0;
+        this.timeMultiplier = TimeMultiplier.REAL_TIME;
+        this.timeMode = timeMode;
+        this.systemEvent = new SystemEvent(this, 0.0);
+        this.realTimePacer = new RealTimePacer(this);
+        this.batchIntervalEvent = new BatchIntervalEvent(this);
+        this.batchIntervalLength = 0.0;
+    }
+
+    public void simulate() {
+        realTimePacer.reset();
+        scheduleSystemEvent(currentTime);
+        if (batchIntervalLength > 0) {
+            scheduleBatchInterval(currentTime + batchIntervalLength);
+        }
+
+        while (!eventCalendar.isEmpty() && currentTime < maxTime) {
+            if (isControlRequested() && !handleControlRequest()) {
+                break;
+            }
+
+            Event event = eventCalendar.poll();
+            setCurrentTime(event.getExecutionTime());
+            event.execute();
+            event.recycle();
+            executedEvents++;
+
+            if (timeMode == TimeMode.REAL_TIME) {
+                notifyStateChange(StateChangeType.EVENT);
+            }
+
+            if (allocationProbe != null && executedEvents >= ALLOCATION_CHECK_WARMUP_EVENTS && !allocationProbe.isStarted()) {
+                allocationProbe.start(executedEvents, capacityGrowth);
+            }
+        }
+
+        if (allocationProbe != null) {
+            allocationProbe.check(executedEvents, capacityGrowth);
+        }
+    }
+
+    public void addEvent(Event event) {
+        if (event.getExecutionTime() < currentTime - 1e-6) {
+            throw new IllegalStateException("Simulation time must not decrease.");
+        }
+
+        event.sequenceNumber = nextEventSequenceNumber++;
+        eventCalendar.add(event);
+
+        if (eventCalendar.size() > eventCalendarHighWaterMark) {
+            eventCalendarHighWaterMark = eventCalendar.size();
+            countCapacityGrowth();
+        }
+    }
+
+    public void resetEventCalendar() {
+        Event event;
+        while ((event = eventCalendar.poll()) != null) {
+            event.recycle();
+        }
+        nextEventSequenceNumber = 0;
+        systemEventScheduled = false;
+    }
+
+    void scheduleSystemEvent(double time) {
+        systemEventScheduled = true;
+        systemEvent.setExecutionTime(time);
+        addEvent(systemEvent);
+    }
+
+    void awaitRealTime(double time) {
+        realTimePacer.awaitSimulationTime(time);
+    }
+
+    double getRealTimeTickLength() {
+        return realTimePacer.getTickLength();
+    }
+
+    /**
+     * Cuts every experiment into intervals of the given simulated length, {@link #afterBatchInterval()} is called at
+     * the end of each of them. Zero turns it off.
+     */
+    public void setBatchIntervalLength(double batchIntervalLength) {
+        if (batchIntervalLength < 0) {
+            throw new IllegalArgumentException("Batch interval length must not be negative but is " + batchIntervalLength);
+        }
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Batch interval can not be changed while simulation is running.");
+        }
+        this.batchIntervalLength = batchIntervalLength;
+    }
+
+    public double getBatchIntervalLength() {
+        return batchIntervalLength;
+    }
+
+    void endBatchInterval(double time) {
+        afterBatchInterval();
+
+        if (time + batchIntervalLength <= maxTime) {
+            scheduleBatchInterval(time + batchIntervalLength);
+        }
+    }
+
+    private void scheduleBatchInterval(double time) {
+        batchIntervalEvent.setExecutionTime(time);
+        addEvent(batchIntervalEvent);
+    }
+
+    @Override
+    protected boolean handleControlRequest() {
+        if (!super.handleControlRequest()) {
+            return false;
+        }
+
+        // Switching to real time is requested from another thread, the system event is scheduled here so that
+        // the event calendar is only ever touched by the simulation thread.
+        if (timeMode == TimeMode.REAL_TIME && !systemEventScheduled) {
+            scheduleSystemEvent(currentTime);
+        }
+
+        return true;
+    }
+
+    public long getExecutedEvents() {
+        return executedEvents;
+    }
+
+    void countCapacityGrowth() {
+        capacityGrowth++;
+    }
+
+    /**
+     * In allocation check mode the bytes allocated by the simulation thread are measured over the event loop of
+     * every experiment after the first hundred thousand events. If no pool and no event calendar had to grow in
+     * that time the loop is in steady state and allocating more than a budget of 1 KiB in the whole experiment fails
+     * the run with {@link IllegalStateException}.
+     */
+    public void setAllocationCheck(boolean allocationCheck) {
+        this.allocationProbe = allocationCheck ? new AllocationProbe() : null;
+    }
+
+    public int getAllocationCheckedExperiments() {
+        return allocationProbe != null ? allocationProbe.getCheckedExperiments() : 0;
+    }
+
+    /**
+     * Most bytes allocated by the event loop in one checked experiment.
+     */
+    public long getMaxAllocatedBytes() {
+        return allocationProbe != null ? allocationProbe.getMaxAllocatedBytes() : 0;
+    }
+
+    public EventCalendar.Type getEventCalendarType() {
+        return eventCalendarType;
+    }
+
+    public void setEventCalendarType(EventCalendar.Type eventCalendarType) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Event calendar can not be changed while simulation is running.");
+        }
+        this.eventCalendarType = eventCalendarType;
+        this.eventCalendar = eventCalendarType.create();
+        this.eventCalendarHighWaterMark = 0;
+    }
+
+    private void setCurrentTime(double time) {
+        currentTime = time;
+    }
+
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    public TimeMultiplier getTimeMultiplier() {
+        return timeMultiplier;
+    }
+
+    public void setTimeMultiplier(TimeMultiplier timeMultiplier) {
+        synchronized (lock) {
+            this.timeMultiplier = timeMultiplier;
+            wakeUp();
+            for (SimulationCore worker : getWorkers()) {
+                ((EventSimulation) worker).setTimeMultiplier(timeMultiplier);
+            }
+        }
+    }
+
+    /**
+     * Switches between virtual and real time, also while the simulation runs. In a parallel run every worker is
+     * switched and paced, the events of one of them are published.
+     */
+    public void setExecutionMode(TimeMode timeMode) {
+        synchronized (lock) {
+            if (this.timeMode == timeMode) {
+                return;
+            }
+
+            this.timeMode = timeMode;
+
+            if (timeMode == TimeMode.REAL_TIME) {
+                requestControl();
+            }
+            for (SimulationCore worker : getWorkers()) {
+                ((EventSimulation) worker).setExecutionMode(timeMode);
+            }
+        }
+    }
+
+    public TimeMode getExecutionMode() {
+        return timeMode;
+    }
+
+    public void experiment() {
+        simulate();
+    }
+
+    protected abstract void beforeSimulation();
+    protected abstract void afterSimulation();
+    protected abstract void beforeExperiment();
+    protected abstract void afterExperiment();
+
+    protected void afterBatchInterval() { }
+
+    public enum TimeMode {
+        VIRTUAL_TIME,
+        REAL_TIME
+    }
+
+    public enum TimeMultiplier {
+        SLOWER_10(1/10.0),
+        SLOWER_5(1/5.0),
+        SLOWER_2(1/2.0),
+        REAL_TIME(1.0),
+        FASTER_2(2.0),
+        FASTER_5(5.0),
+        FASTER_10(10.0),
+        FASTER_50(50.0),
+        FASTER_100(100.0),
+        FASTER_500(500.0),
+        FASTER_1000(1000.0),
+        FASTER_5000(5000.0),
+        FASTER_10_000(10000.0),
+        FASTER_50_000(50000.0),
+        FASTER_100_000(100000.0);
+
+        public final double value;
+
+        TimeMultiplier(double value) {
+            this.value = value;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public static TimeMultiplier fromString(String value) {
+            return switch (value) {
+                case "1/10x" -> SLOWER_10;
+                case "1/5x" -> SLOWER_5;
+                case "1/2x" -> SLOWER_2;
+                case "1x" -> REAL_TIME;
+                case "2x" -> FASTER_2;
+                case "5x" -> FASTER_5;
+                case "10x" -> FASTER_10;
+                case "50x" -> FASTER_50;
+                case "100x" -> FASTER_100;
+                case "500x" -> FASTER_500;
+                case "1000x" -> FASTER_1000;
+                case "5000x" -> FASTER_5000;
+                case "10 000x" -> FASTER_10_000;
+                case "50 000x" -> FASTER_50_000;
+                case "100 000x" -> FASTER_100_000;
+                default -> throw new IllegalArgumentException("Unknown time multiplier: " + value);
+            };
+        }
+
+        public static String valueToString(TimeMultiplier timeMultiplier) {
+            return switch (timeMultiplier) {
+                case SLOWER_10 -> "1/10x";
+                case SLOWER_5 -> "1/5x";
+                case SLOWER_2 -> "1/2x";
+                case REAL_TIME -> "1x";
+                case FASTER_2 -> "2x";
+                case FASTER_5 -> "5x";
+                case FASTER_10 -> "10x";
+                case FASTER_50 -> "50x";
+                case FASTER_100 -> "100x";
+                case FASTER_500 -> "500x";
+                case FASTER_1000 -> "1000x";
+                case FASTER_5000 -> "5000x";
+                case FASTER_10_000 -> "10 000x";
+                case FASTER_50_000 -> "50 000x";
+                case FASTER_100_000 -> "100 000x";
+            };
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package nufo.diss;
+
+/**
+ * Lets through at most one frame per frame interval. A frame that was refused is remembered as pending so that the
+ * latest state can still be delivered once the stream goes quiet.
+ */
+class FrameRateLimiter {
+    private final long frameNanos;
+    private long lastFrameNanos;
+    private boolean pending;
+
+    FrameRateLimiter(int framesPerSecond) {
+        if (framesPerSecond < 1) {
+            throw new IllegalArgumentException("Frame rate must be at least 1 but is " + framesPerSecond);
+        }
+        this.frameNanos = 1_000_000_000L / framesPerSecond;
+        this.lastFrameNanos = System.nanoTime() - frameNanos;
+        this.pending = false;
+    }
+
+    boolean tryAcquireFrame() {
+        long now = System.nanoTime();
+        if (now - lastFrameNanos >= frameNanos) {
+            lastFrameNanos = now;
+            pending = false;
+            return true;
+        }
+        pending = true;
+        return false;
+    }
+
+    boolean takePending() {
+        if (!pending) {
+            return false;
+        }
+        lastFrameNanos = System.nanoTime();
+        pending = false;
+        return true;
+    }
+}
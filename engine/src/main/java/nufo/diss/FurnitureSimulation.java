@@ -0,0 +1,1851 @@
+package nufo.diss;
+
+import nufo.diss.generators.*;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public final class FurnitureSimulation extends EventSimulation{
+    private final Map<Order.State, Queue<Order>> orderQueues;
+    private final Map<Carpenter.Group, Integer> carpentersGroupSizes;
+    private final Map<Carpenter.Group, List<Carpenter>> carpenterGroups;
+    private final List<Workplace> workplaces;
+    private Generator orderTypeProbabilityGenerator;
+    private Generator orderArrivalGenerator;
+    private Generator timeToMoveBetweenWorkplaceAndWarehouseGenerator;
+    private Generator timeToPrepareMaterialInWarehouseGenerator;
+    private Generator timeToMoveBetweenWorkplacesGenerator;
+    private int generatorBlockSize;
+    private ExponentialGenerator.Algorithm exponentialAlgorithm = ExponentialGenerator.Algorithm.INVERSION;
+    private TriangularGenerator.Algorithm triangularAlgorithm = TriangularGenerator.Algorithm.INVERSION;
+    private Path tapeDirectory;
+    private VariateTape.Mode tapeMode;
+    private final List<VariateTape> variateTapes = new ArrayList<>();
+    private int tapePart;
+    private int createdWorkers;
+
+    private Map<Order.Type, Map<Order.State, Generator>> actionTimeGenerators;
+    private final List<Generator> randomStreams = new ArrayList<>();
+    private final List<Generator> controlVariates = new ArrayList<>();
+    private FurnitureSimulation master;
+    private Long fixedMasterSeed;
+    private long masterSeed;
+    private boolean antitheticVariates;
+    private final Map<Integer, PendingReplication> pendingReplications = new Hashtable<>();
+    private final Deque<Map<Order.Type, Map<Order.State, LogHistogram>>> freeStageTimes = new ArrayDeque<>();
+    private int recordedReplications;
+
+    private final FurnitureSimulationReplicationStatistics replicationStatistics;
+    private final FurnitureSimulationExperimentStatistics experimentStatistics;
+    private final FurnitureSimulationBatchStatistics batchStatistics;
+    private final Map<Order.Type, Map<Order.State, LogHistogram>> stageTimes;
+    private BatchMeans.Method batchMeansMethod;
+    private boolean warmupDetection;
+    private final WarmupDetector warmupDetector = new WarmupDetector();
+    private final Order.State[] queueStates = Order.State.queueValues();
+    private double[] warmupTotals = new double[1024];
+    private int warmupTotalsStride;
+    private Path replicationStoreFile;
+    private ReplicationStore replicationStore;
+    private double[] replicationStoreRow;
+
+    private int numberOfArrivedOrders;
+    private int numberOfDoneOrders;
+    private int lastCarpenterId;
+    private int lastWorkplaceId;
+
+    private final EventPool<OrderArrivalEvent> orderArrivalEvents = new EventPool<>(this, () -> new OrderArrivalEvent(this));
+    private final EventPool<FurnitureSawingStartEvent> sawingStartEvents = new EventPool<>(this, () -> new FurnitureSawingStartEvent(this));
+    private final EventPool<FurnitureSawingEndEvent> sawingEndEvents = new EventPool<>(this, () -> new FurnitureSawingEndEvent(this));
+    private final EventPool<FurnitureSoakingStartEvent> soakingStartEvents = new EventPool<>(this, () -> new FurnitureSoakingStartEvent(this));
+    private final EventPool<FurnitureSoakingEndEvent> soakingEndEvents = new EventPool<>(this, () -> new FurnitureSoakingEndEvent(this));
+    private final EventPool<FurnitureAssemblingStartEvent> assemblingStartEvents = new EventPool<>(this, () -> new FurnitureAssemblingStartEvent(this));
+    private final EventPool<FurnitureAssemblingEndEvent> assemblingEndEvents = new EventPool<>(this, () -> new FurnitureAssemblingEndEvent(this));
+    private final EventPool<FurnitureFittingsInstallationStartEvent> fittingsInstallationStartEvents = new EventPool<>(this, () -> new FurnitureFittingsInstallationStartEvent(this));
+    private final EventPool<FurnitureFittingsInstallationEndEvent> fittingsInstallationEndEvents = new EventPool<>(this, () -> new FurnitureFittingsInstallationEndEvent(this));
+    private final int[] orderQueueHighWaterMarks = new int[Order.State.values().length];
+    private final ObjectPool<Order> orderPool = new ObjectPool<>(this, () -> new Order(this, Order.Type.TABLE, 0.0));
+    private final ObjectPool<Workplace> workplacePool = new ObjectPool<>(this, () -> new Workplace(this, 0));
+
+    protected FurnitureSimulation(
+            int numberOfReplications,
+            TimeMode timeMode,
+            double maxTime,
+            int carpenterGroupASize,
+            int carpenterGroupBSize,
+            int carpenterGroupCSize
+    ) {
+        super(numberOfReplications, timeMode, maxTime);
+
+        carpentersGroupSizes = new Hashtable<>();
+        carpentersGroupSizes.put(Carpenter.Group.A, carpenterGroupASize);
+        carpentersGroupSizes.put(Carpenter.Group.B, carpenterGroupBSize);
+        carpentersGroupSizes.put(Carpenter.Group.C, carpenterGroupCSize);
+
+        orderQueues = new Hashtable<>();
+        for (Order.State state : Order.State.queueValues()) {
+            orderQueues.put(state, new ArrayDeque<>());
+        }
+
+        workplaces = new ArrayList<>();
+
+        carpenterGroups = new Hashtable<>();
+
+        replicationStatistics = new FurnitureSimulationReplicationStatistics();
+        experimentStatistics = new FurnitureSimulationExperimentStatistics();
+        batchStatistics = new FurnitureSimulationBatchStatistics();
+        stageTimes = createStageTimeHistograms();
+    }
+
+    // Time an order spends in each state before it leaves it, the waiting states are the queues.
+    private static Map<Order.Type, Map<Order.State, LogHistogram>> createStageTimeHistograms() {
+        Map<Order.Type, Map<Order.State, LogHistogram>> histograms = new Hashtable<>();
+        for (Order.Type type : Order.Type.values()) {
+            Map<Order.State, LogHistogram> typeHistograms = new Hashtable<>();
+            for (Order.State state : Order.State.values()) {
+                if (state != Order.State.DONE) {
+                    typeHistograms.put(state, new LogHistogram());
+                }
+            }
+            histograms.put(type, typeHistograms);
+        }
+        return histograms;
+    }
+
+    private static void mergeStageTimes(Map<Order.Type, Map<Order.State, LogHistogram>> target, Map<Order.Type, Map<Order.State, LogHistogram>> source) {
+        for (Order.Type type : Order.Type.values()) {
+            for (Map.Entry<Order.State, LogHistogram> entry : source.get(type).entrySet()) {
+                target.get(type).get(entry.getKey()).merge(entry.getValue());
+            }
+        }
+    }
+
+    private static void resetStageTimes(Map<Order.Type, Map<Order.State, LogHistogram>> stageTimes) {
+        for (Map<Order.State, LogHistogram> typeStageTimes : stageTimes.values()) {
+            for (LogHistogram histogram : typeStageTimes.values()) {
+                histogram.reset();
+            }
+        }
+    }
+
+    public static class FurnitureSimulationReplicationStatistics {
+        private final Statistics orderWorkingTime = new Statistics();
+        private final ControlVariateStatistics orderWorkingTimeControlled = new ControlVariateStatistics();
+        private final Statistics orderWorkingTimeP95 = new Statistics();
+        private final Statistics orderWorkingTimeP99 = new Statistics();
+        private final Statistics notYetStartedWorkOrders = new Statistics();
+        private final Statistics warmupTime = new Statistics();
+        private final Map<Order.State, Statistics> averageQueueLengths = new Hashtable<>();
+        private final Statistics averageOccupiedWorkplaces = new Statistics();
+        private final Map<Carpenter.Group, Statistics> averageBusyCarpenters = new Hashtable<>();
+        private final Map<Carpenter.Group, Statistics> groupWorkloads = new Hashtable<>();
+        private final Map<Carpenter, Statistics> carpenterWorkloads = new Hashtable<>();
+
+        public FurnitureSimulationReplicationStatistics() {
+            for (Order.State state : Order.State.queueValues()) {
+                averageQueueLengths.put(state, new Statistics());
+            }
+            for (Carpenter.Group group : Carpenter.Group.values()) {
+                averageBusyCarpenters.put(group, new Statistics());
+            }
+        }
+
+        private void addMeans(FurnitureSimulationReplicationStatistics pair) {
+            addMean(orderWorkingTime, pair.orderWorkingTime);
+            if (pair.orderWorkingTimeControlled.getCount() > 0) {
+                orderWorkingTimeControlled.addValue(pair.orderWorkingTimeControlled.getResponseMean(), pair.orderWorkingTimeControlled.getControlDeviationMeans());
+            }
+            addMean(orderWorkingTimeP95, pair.orderWorkingTimeP95);
+            addMean(orderWorkingTimeP99, pair.orderWorkingTimeP99);
+            addMean(notYetStartedWorkOrders, pair.notYetStartedWorkOrders);
+            addMean(warmupTime, pair.warmupTime);
+            addMeans(averageQueueLengths, pair.averageQueueLengths);
+            addMean(averageOccupiedWorkplaces, pair.averageOccupiedWorkplaces);
+            addMeans(averageBusyCarpenters, pair.averageBusyCarpenters);
+            addMeans(groupWorkloads, pair.groupWorkloads);
+            addMeans(carpenterWorkloads, pair.carpenterWorkloads);
+        }
+
+        private static <K> void addMeans(Map<K, Statistics> statistics, Map<K, Statistics> pair) {
+            for (Map.Entry<K, Statistics> entry : pair.entrySet()) {
+                addMean(statistics.get(entry.getKey()), entry.getValue());
+            }
+        }
+
+        private static void addMean(Statistics statistics, Statistics pair) {
+            if (pair.getCount() > 0) {
+                statistics.addValue(pair.getMean());
+            }
+        }
+    }
+
+    public static class FurnitureSimulationBatchStatistics {
+        private final BatchMeans orderWorkingTime = new BatchMeans();
+        private final BatchMeans notYetStartedWorkOrders = new BatchMeans();
+        private final Map<Order.State, BatchMeans> averageQueueLengths = new Hashtable<>();
+        private final BatchMeans averageOccupiedWorkplaces = new BatchMeans();
+        private final Map<Carpenter.Group, BatchMeans> averageBusyCarpenters = new Hashtable<>();
+        private final Map<Carpenter.Group, BatchMeans> groupWorkloads = new Hashtable<>();
+        private final Map<Carpenter, BatchMeans> carpenterWorkloads = new Hashtable<>();
+
+        public FurnitureSimulationBatchStatistics() {
+            for (Order.State state : Order.State.queueValues()) {
+                averageQueueLengths.put(state, new BatchMeans());
+            }
+            for (Carpenter.Group group : Carpenter.Group.values()) {
+                averageBusyCarpenters.put(group, new BatchMeans());
+            }
+        }
+
+        public void reset() {
+            orderWorkingTime.reset();
+            notYetStartedWorkOrders.reset();
+            for (BatchMeans batchMeans : averageQueueLengths.values()) {
+                batchMeans.reset();
+            }
+            averageOccupiedWorkplaces.reset();
+            for (BatchMeans batchMeans : averageBusyCarpenters.values()) {
+                batchMeans.reset();
+            }
+            groupWorkloads.clear();
+            carpenterWorkloads.clear();
+        }
+    }
+
+    public static class FurnitureSimulationExperimentStatistics {
+        private final Statistics orderWorkingTime = new Statistics();
+        private final LogHistogram orderWorkingTimeHistogram = new LogHistogram();
+        private final Map<Order.State, TimeWeightedStatistics> queueLengths = new Hashtable<>();
+        private final TimeWeightedStatistics occupiedWorkplaces = new TimeWeightedStatistics();
+        private final Map<Carpenter.Group, TimeWeightedStatistics> busyCarpenters = new Hashtable<>();
+        private final Map<Order.Type, Map<Order.State, LogHistogram>> stageTimes = createStageTimeHistograms();
+        private double startTime;
+
+        public FurnitureSimulationExperimentStatistics() {
+            for (Order.State state : Order.State.queueValues()) {
+                queueLengths.put(state, new TimeWeightedStatistics());
+            }
+            for (Carpenter.Group group : Carpenter.Group.values()) {
+                busyCarpenters.put(group, new TimeWeightedStatistics());
+            }
+        }
+
+        public void addOrderWorkingTime(double orderWorkingTime) {
+            this.orderWorkingTime.addValue(orderWorkingTime);
+            this.orderWorkingTimeHistogram.addValue(orderWorkingTime);
+        }
+
+        public void reset() {
+            startTime = 0.0;
+            orderWorkingTime.reset();
+            orderWorkingTimeHistogram.reset();
+            for (TimeWeightedStatistics queueLength : queueLengths.values()) {
+                queueLength.reset(0.0, 0.0);
+            }
+            occupiedWorkplaces.reset(0.0, 0.0);
+            for (TimeWeightedStatistics busy : busyCarpenters.values()) {
+                busy.reset(0.0, 0.0);
+            }
+            resetStageTimes(stageTimes);
+        }
+    }
+
+    public static class Carpenter {
+        private final FurnitureSimulation simulation;
+        private State state = State.FREE;
+        private Position position = Position.WAREHOUSE;
+        private Workplace workplace;
+        private final Group group;
+        private final int id;
+        private double workTime = 0.0;
+        private double lastWorkStartTime = 0.0;
+
+        Carpenter(FurnitureSimulation simulation, Group group, int id) {
+            this.simulation = simulation;
+            this.group = group;
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public void setState(State state , double time) {
+            if (this.state == state) {
+                throw new IllegalStateException("State is already set: " + state);
+            }
+
+            if (state == State.WORKING) {
+                lastWorkStartTime = time;
+            } else if (state == State.FREE) {
+                workTime += time - lastWorkStartTime;
+            }
+
+            this.state = state;
+            simulation.carpenterStateChanged(this, time);
+        }
+
+        public Position getPosition() {
+            return position;
+        }
+
+        public void setPosition(Position position) {
+            this.position = position;
+        }
+
+        public void setWorkplace(Workplace workplace) {
+            this.workplace = workplace;
+        }
+
+        public Workplace getWorkplace() {
+            return workplace;
+        }
+
+        public Group getGroup() {
+            return group;
+        }
+
+        public double getWorkTime(double time) {
+            return state == State.WORKING ? workTime + time - lastWorkStartTime : workTime;
+        }
+
+        public void reset() {
+            state = State.FREE;
+            position = Position.WAREHOUSE;
+            workplace = null;
+            workTime = 0.0;
+            lastWorkStartTime = 0.0;
+        }
+
+        public enum State {
+            FREE,
+            WORKING
+        }
+
+        public enum Position {
+            WAREHOUSE,
+            WORKPLACE
+        }
+
+        public enum Group {
+            A, B, C
+        }
+
+        @Override
+        public String toString() {
+            return "ID: " + id +
+                    ", state: " + state +
+                    (workplace != null ? ", workplaceID: " + workplace.getId() : "") +
+                    ", position: " + position +
+                    ", group: " + group;
+        }
+
+        public Data toData() {
+            return new Data(getId(), getGroup(), getState(), getPosition(), getWorkplace() != null ? getWorkplace().getId() : null);
+        }
+
+        public record Data(
+                int id,
+                Group group,
+                State state,
+                Position position,
+                Integer workplaceId
+        ) { }
+    }
+
+    public static class Order {
+        private final FurnitureSimulation simulation;
+        private Type type;
+        private State state;
+        private Workplace workplace;
+        private double arrivalTime;
+        private double stateEnteredTime;
+
+        Order(FurnitureSimulation simulation, Type type, double arrivalTime) {
+            this.simulation = simulation;
+            reset(type, arrivalTime);
+        }
+
+        void reset(Type type, double arrivalTime) {
+            this.type = type;
+            this.state = State.NEW;
+            this.workplace = null;
+            this.arrivalTime = arrivalTime;
+            this.stateEnteredTime = arrivalTime;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public void setState(State state, double time) {
+            State previousState = this.state;
+            double sojournTime = time - stateEnteredTime;
+
+            this.state = state;
+            this.stateEnteredTime = time;
+            simulation.orderStateChanged(this, previousState, sojournTime);
+        }
+
+        public double getStateEnteredTime() {
+            return stateEnteredTime;
+        }
+
+        public void setWorkplace(Workplace workplace) {
+            if (this.workplace != null) {
+                throw new IllegalStateException("Order already in the workplace.");
+            }
+            this.workplace = workplace;
+        }
+
+        public Workplace getWorkplace() {
+            return workplace;
+        }
+
+        public double getArrivalTime() {
+            return arrivalTime;
+        }
+
+        public enum Type {
+            TABLE,
+            CHAIR,
+            WARDROBE
+        }
+
+        public enum State {
+            NEW,
+            SAWING,
+            SAWED,
+            SOAKING,
+            SOAKED,
+            ASSEMBLING,
+            ASSEMBLED,
+            FITTINGS_INSTALLATION,
+            DONE;
+
+            public static State[] queueValues() {
+                return new State[] {NEW, SAWED, SOAKED, ASSEMBLED};
+            }
+        }
+    }
+
+    public static class Workplace {
+        private final FurnitureSimulation simulation;
+        private int id;
+        private Order order;
+        private Carpenter carpenter;
+
+        Workplace(FurnitureSimulation simulation, int id) {
+            this.simulation = simulation;
+            reset(id);
+        }
+
+        void reset(int id) {
+            this.id = id;
+            this.order = null;
+            this.carpenter = null;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public boolean isFree() {
+            return order == null;
+        }
+
+        public void assignOrder(Order order) {
+            if (this.order != null) {
+                throw new IllegalStateException("Only one order can be in workplace.");
+            }
+            order.setWorkplace(this);
+            this.order = order;
+            simulation.workplaceOccupancyChanged(1);
+        }
+
+        public void unassignOrder() {
+            if (order == null) {
+                throw new IllegalStateException("The is no order in workplace.");
+            }
+            order = null;
+            simulation.workplaceOccupancyChanged(-1);
+        }
+
+        public Order getOrder() {
+            return order;
+        }
+
+        public Carpenter getCarpenter() {
+            return carpenter;
+        }
+
+        public void assignCarpenter(Carpenter carpenter) {
+            if (this.carpenter != null) {
+                throw new IllegalStateException("Only one carpenter can be in workplace.");
+            }
+            this.carpenter = carpenter;
+        }
+
+        public void unassignCarpenter() {
+            if (carpenter == null) {
+                throw new IllegalStateException("No carpenter is in workplace.");
+            }
+            this.carpenter = null;
+        }
+
+        @Override
+        public String toString() {
+            return "ID: " + id +
+                    ", order: " + (order != null ? "Order( type: "+order.getType()+", state: "+order.getState()+" )" : "NONE") +
+                    (carpenter != null ? ", carpenterID: " + carpenter.getId() : "");
+        }
+    }
+
+    public record EventData(
+            double currentTime,
+            int numberOfArrivedOrders,
+            int numberOfDoneOrders,
+            Map<Order.State, Integer> queueSizes,
+            String[] workplaces,
+            String[] carpenters,
+            Statistics orderWorkingTime
+    ) { }
+
+    public record ReplicationData(
+         int numberOfDoneReplications,
+         Statistics.Data orderWorkingTime,
+         Statistics.Data orderWorkingTimeControlled,
+         Statistics.Data orderWorkingTimeP95,
+         Statistics.Data orderWorkingTimeP99,
+         Statistics.Data notYetStartedWorkOrders,
+         Statistics.Data warmupTime,
+         Map<Order.State, Statistics.Data> averageQueueLengths,
+         Statistics.Data averageOccupiedWorkplaces,
+         Map<Carpenter.Group, Statistics.Data> averageBusyCarpenters,
+         Map<Carpenter.Group, Statistics.Data> carpenterGroupWorkloads,
+         Map<Carpenter.Data, Statistics.Data> carpenterWorkloads,
+         Map<Order.Type, Map<Order.State, LogHistogram.Data>> stageTimes
+    ) { }
+
+    @Override
+    protected Object createSnapshot(StateChangeType stateChangeType) {
+        return switch (stateChangeType) {
+            case EXPERIMENT -> new ReplicationData(
+                    recordedReplications,
+                    toData(replicationStatistics.orderWorkingTime, batchStatistics.orderWorkingTime),
+                    replicationStatistics.orderWorkingTimeControlled.toData(),
+                    replicationStatistics.orderWorkingTimeP95.toData(),
+                    replicationStatistics.orderWorkingTimeP99.toData(),
+                    toData(replicationStatistics.notYetStartedWorkOrders, batchStatistics.notYetStartedWorkOrders),
+                    replicationStatistics.warmupTime.toData(),
+                    toData(replicationStatistics.averageQueueLengths, batchStatistics.averageQueueLengths),
+                    toData(replicationStatistics.averageOccupiedWorkplaces, batchStatistics.averageOccupiedWorkplaces),
+                    toData(replicationStatistics.averageBusyCarpenters, batchStatistics.averageBusyCarpenters),
+                    toData(replicationStatistics.groupWorkloads, batchStatistics.groupWorkloads),
+                    toData(replicationStatistics.carpenterWorkloads, batchStatistics.carpenterWorkloads)
+                            .entrySet()
+                            .stream()
+                            .collect(Collectors.toMap(e -> e.getKey().toData(), Map.Entry::getValue)),
+                    stageTimes.entrySet()
+                            .stream()
+                            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().entrySet()
+                                    .stream()
+                                    .filter(stage -> stage.getValue().getCount() > 0)
+                                    .collect(Collectors.toMap(Map.Entry::getKey, stage -> stage.getValue().toData()))))
+            );
+            case EVENT -> new EventData(
+                    currentTime,
+                    numberOfArrivedOrders,
+                    numberOfDoneOrders,
+                    orderQueues.entrySet()
+                            .stream()
+                            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().size())),
+                    this.workplaces.stream().map(Workplace::toString).toArray(String[]::new),
+                    carpenterGroups.values().stream()
+                            .flatMap(List::stream)
+                            .sorted(Comparator.comparingInt(Carpenter::getId))
+                            .map(Carpenter::toString)
+                            .toArray(String[]::new),
+                    experimentStatistics.orderWorkingTime
+            );
+            case STATE -> state;
+        };
+    }
+
+    private Statistics.Data toData(Statistics replications, BatchMeans batches) {
+        return batchMeansMethod != null ? batches.toData(batchMeansMethod) : replications.toData();
+    }
+
+    private <K> Map<K, Statistics.Data> toData(Map<K, Statistics> replications, Map<K, BatchMeans> batches) {
+        return replications.keySet()
+                .stream()
+                .collect(Collectors.toMap(key -> key, key -> toData(replications.get(key), batches.get(key))));
+    }
+
+    /**
+     * Replaces the replications by one long run of the simulation horizon cut into intervals of the given simulated
+     * length. Confidence intervals of the means are then computed from batches of consecutive intervals instead of
+     * from independent replications, the order working time quantiles are those of the whole run. Null method turns
+     * it off.
+     */
+    public void setBatchMeans(double batchIntervalLength, BatchMeans.Method method) {
+        if (method != null && numberOfReplications != 1) {
+            throw new IllegalStateException("Batch means need a single replication but simulation has " + numberOfReplications);
+        }
+        setBatchIntervalLength(method != null ? batchIntervalLength : 0.0);
+        this.batchMeansMethod = method;
+    }
+
+    public BatchMeans.Method getBatchMeansMethod() {
+        return batchMeansMethod;
+    }
+
+    /**
+     * Batch size in intervals chosen for the order working time, 0 without batch means.
+     */
+    public int getOrderWorkingTimeBatchSize() {
+        return batchMeansMethod != null ? batchStatistics.orderWorkingTime.getBatchSize() : 0;
+    }
+
+    /**
+     * Detects the end of the initial transient of every replication with MSER-5 on the order working times and
+     * leaves everything before it out of the replication results. Without it the empty shop at the start biases the
+     * means and has to be diluted by more replications.
+     */
+    public void setWarmupDetection(boolean warmupDetection) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Warm-up detection can not be changed while simulation is running.");
+        }
+        this.warmupDetection = warmupDetection;
+    }
+
+    public boolean isWarmupDetection() {
+        return warmupDetection;
+    }
+
+    /**
+     * Runs the replications in antithetic pairs, the second replication of a pair draws 1 - u in place of every
+     * uniform u of the first one. Each pair contributes the average of its two replications as one observation, a
+     * replication whose pair is not complete is not recorded. The ziggurat exponential algorithm is not monotone
+     * and leaves the pairs of arrivals practically uncorrelated, inversion should be used with antithetic pairs.
+     */
+    public void setAntitheticVariates(boolean antitheticVariates) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Antithetic variates can not be changed while simulation is running.");
+        }
+        this.antitheticVariates = antitheticVariates;
+    }
+
+    public boolean isAntitheticVariates() {
+        return antitheticVariates;
+    }
+
+    /**
+     * Draws the values of every random stream in blocks of the given size with {@link BufferedGenerator}, so that
+     * the events read them from arrays. The values are the same as without blocks, 0 turns it off.
+     */
+    public void setGeneratorBlockSize(int generatorBlockSize) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Generator block size can not be changed while simulation is running.");
+        }
+        if (generatorBlockSize < 0) {
+            throw new IllegalArgumentException("Generator block size must not be negative but is " + generatorBlockSize);
+        }
+        this.generatorBlockSize = generatorBlockSize;
+    }
+
+    public int getGeneratorBlockSize() {
+        return generatorBlockSize;
+    }
+
+    /**
+     * Algorithms of the exponential order arrivals and of the triangular move and material preparation times. The
+     * distributions are the same, the values drawn for the same seed are not.
+     */
+    public void setSamplingAlgorithms(ExponentialGenerator.Algorithm exponentialAlgorithm, TriangularGenerator.Algorithm triangularAlgorithm) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Sampling algorithms can not be changed while simulation is running.");
+        }
+        this.exponentialAlgorithm = exponentialAlgorithm;
+        this.triangularAlgorithm = triangularAlgorithm;
+    }
+
+    public ExponentialGenerator.Algorithm getExponentialAlgorithm() {
+        return exponentialAlgorithm;
+    }
+
+    public TriangularGenerator.Algorithm getTriangularAlgorithm() {
+        return triangularAlgorithm;
+    }
+
+    /**
+     * Records the values drawn by every random stream in every replication on tapes in the directory, or replays
+     * them from the tapes there in place of sampling. A recording replaces the tapes in the directory, a replay
+     * samples live where the tapes end. Null directory turns it off.
+     */
+    public void setVariateTapes(Path tapeDirectory, VariateTape.Mode tapeMode) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Variate tapes can not be changed while simulation is running.");
+        }
+        if (tapeDirectory != null && tapeMode == null) {
+            throw new IllegalArgumentException("Variate tapes need a mode.");
+        }
+        this.tapeDirectory = tapeDirectory;
+        this.tapeMode = tapeDirectory != null ? tapeMode : null;
+    }
+
+    /**
+     * Seed all random streams of the replications are derived from, runs with the same master seed are reproduced
+     * bit for bit whatever the parallelism. Null draws a new master seed for every run.
+     */
+    public void setMasterSeed(Long masterSeed) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Master seed can not be changed while simulation is running.");
+        }
+        this.fixedMasterSeed = masterSeed;
+    }
+
+    /**
+     * Master seed of the current or last run.
+     */
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * Appends the results of every replication as one row to a {@link ReplicationStore} in the given file, which is
+     * replaced when the simulation starts unless it is resumed from a checkpoint. The replications of an antithetic
+     * pair are stored separately, the replication column tells which belong together. Null turns it off.
+     */
+    public void setReplicationStoreFile(Path replicationStoreFile) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Replication store can not be changed while simulation is running.");
+        }
+        this.replicationStoreFile = replicationStoreFile;
+    }
+
+    /**
+     * Store of the replications of the last run, null before its first replication is recorded.
+     */
+    public ReplicationStore getReplicationStore() {
+        return replicationStore;
+    }
+
+    private List<String> getReplicationStoreColumns() {
+        List<String> columns = new ArrayList<>();
+        columns.add("replication");
+        columns.add("orderWorkingTime");
+        columns.add("notYetStartedWorkOrders");
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            columns.add("groupWorkload." + group);
+        }
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            for (Carpenter carpenter : carpenterGroups.get(group)) {
+                columns.add("carpenterWorkload." + carpenter.getId());
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    protected void beforeSimulation() {
+        masterSeed = master != null ? master.masterSeed : fixedMasterSeed != null ? fixedMasterSeed : RandomStreams.randomMasterSeed();
+        if (master == null) {
+            createdWorkers = 0;
+            prepareVariateTapes();
+        }
+        createGenerators();
+
+        lastCarpenterId = 0;
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            List<Carpenter> carpenters = new ArrayList<>();
+            for (int i = 0; i < carpentersGroupSizes.get(group); i++) {
+                carpenters.add(new Carpenter(this, group, ++lastCarpenterId));
+            }
+            carpenterGroups.put(group, carpenters);
+        }
+        addCarpenterStatistics(replicationStatistics);
+        pendingReplications.clear();
+        recordedReplications = 0;
+
+        warmupTotalsStride = queueStates.length + 1 + Carpenter.Group.values().length + lastCarpenterId;
+
+        closeReplicationStore();
+        replicationStoreRow = new double[3 + Carpenter.Group.values().length + lastCarpenterId];
+
+        batchStatistics.reset();
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            batchStatistics.groupWorkloads.put(group, new BatchMeans());
+            for (Carpenter carpenter : carpenterGroups.get(group)) {
+                batchStatistics.carpenterWorkloads.put(carpenter, new BatchMeans());
+            }
+        }
+    }
+
+    private void addCarpenterStatistics(FurnitureSimulationReplicationStatistics statistics) {
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            statistics.groupWorkloads.put(group, new Statistics());
+            for (Carpenter carpenter : carpenterGroups.get(group)) {
+                statistics.carpenterWorkloads.put(carpenter, new Statistics());
+            }
+        }
+    }
+
+    private void createGenerators() {
+        orderArrivalGenerator = buffered(new ExponentialGenerator(2.0 / 3600.0, exponentialAlgorithm));
+        orderTypeProbabilityGenerator = buffered(new UniformGenerator(0.0, 1.0, Generator.Mode.CONTINUOUS));
+
+        timeToMoveBetweenWorkplaceAndWarehouseGenerator = buffered(new TriangularGenerator(60, 480, 120, triangularAlgorithm));
+        timeToPrepareMaterialInWarehouseGenerator = buffered(new TriangularGenerator(300, 900, 500, triangularAlgorithm));
+        timeToMoveBetweenWorkplacesGenerator = buffered(new TriangularGenerator(120, 500, 150, triangularAlgorithm));
+
+        actionTimeGenerators = new Hashtable<>();
+        for (Order.Type orderType : Order.Type.values()) {
+            actionTimeGenerators.put(orderType, new Hashtable<>());
+        }
+
+        actionTimeGenerators.get(Order.Type.TABLE).put(Order.State.SAWING, new EmpiricalGenerator(
+                Arrays.asList(10.0 * 60, 25.0 * 60),
+                Arrays.asList(25.0 * 60, 50.0 * 60),
+                Arrays.asList(0.6, 0.4),
+                Generator.Mode.CONTINUOUS
+        ));
+        actionTimeGenerators.get(Order.Type.TABLE).put(Order.State.SOAKING, new UniformGenerator(200 * 60, 610 * 60, Generator.Mode.CONTINUOUS));
+        actionTimeGenerators.get(Order.Type.TABLE).put(Order.State.ASSEMBLING, new UniformGenerator(30 * 60, 60 * 60, Generator.Mode.CONTINUOUS));
+
+        actionTimeGenerators.get(Order.Type.CHAIR).put(Order.State.SAWING, new UniformGenerator(12 * 60, 16 * 60, Generator.Mode.CONTINUOUS));
+        actionTimeGenerators.get(Order.Type.CHAIR).put(Order.State.SOAKING, new UniformGenerator(210 * 60, 540 * 60, Generator.Mode.CONTINUOUS));
+        actionTimeGenerators.get(Order.Type.CHAIR).put(Order.State.ASSEMBLING, new UniformGenerator(14 * 60, 24 * 60, Generator.Mode.CONTINUOUS));
+
+        actionTimeGenerators.get(Order.Type.WARDROBE).put(Order.State.SAWING, new UniformGenerator(15 * 60, 80 * 60, Generator.Mode.CONTINUOUS));
+        actionTimeGenerators.get(Order.Type.WARDROBE).put(Order.State.SOAKING, new UniformGenerator(600 * 60, 700 * 60, Generator.Mode.CONTINUOUS));
+        actionTimeGenerators.get(Order.Type.WARDROBE).put(Order.State.ASSEMBLING, new UniformGenerator(35 * 60, 75 * 60, Generator.Mode.CONTINUOUS));
+        actionTimeGenerators.get(Order.Type.WARDROBE).put(Order.State.FITTINGS_INSTALLATION, new UniformGenerator(15 * 60, 25 * 60, Generator.Mode.CONTINUOUS));
+
+        for (Map<Order.State, Generator> typeGenerators : actionTimeGenerators.values()) {
+            typeGenerators.replaceAll((orderState, generator) -> buffered(generator));
+        }
+
+        // Stream numbers follow this fixed order and do not depend on the configuration, so that every input is
+        // synchronised across configurations.
+        randomStreams.clear();
+        randomStreams.add(orderArrivalGenerator);
+        randomStreams.add(orderTypeProbabilityGenerator);
+        randomStreams.add(timeToMoveBetweenWorkplaceAndWarehouseGenerator);
+        randomStreams.add(timeToPrepareMaterialInWarehouseGenerator);
+        randomStreams.add(timeToMoveBetweenWorkplacesGenerator);
+        for (Order.Type orderType : Order.Type.values()) {
+            for (Order.State orderState : Order.State.values()) {
+                Generator generator = actionTimeGenerators.get(orderType).get(orderState);
+                if (generator != null) {
+                    randomStreams.add(generator);
+                }
+            }
+        }
+
+        if (tapeDirectory != null) {
+            wrapWithTapes();
+        }
+
+        // Inputs whose sampled means in a replication correct the order working time, their expected values are
+        // known analytically.
+        controlVariates.clear();
+        controlVariates.add(orderArrivalGenerator);
+        for (Order.Type orderType : Order.Type.values()) {
+            for (Order.State orderState : Order.State.values()) {
+                Generator generator = actionTimeGenerators.get(orderType).get(orderState);
+                if (generator != null) {
+                    controlVariates.add(generator);
+                }
+            }
+        }
+    }
+
+    private void prepareVariateTapes() {
+        variateTapes.clear();
+        if (tapeDirectory == null) {
+            return;
+        }
+        try {
+            if (tapeMode == VariateTape.Mode.RECORD) {
+                VariateTape.deleteAll(tapeDirectory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private VariateTape getVariateTape(int stream) {
+        if (master != null) {
+            return master.getVariateTape(stream);
+        }
+        // Workers open the tapes through the master, so every file is mapped once.
+        synchronized (variateTapes) {
+            try {
+                while (variateTapes.size() <= stream) {
+                    variateTapes.add(VariateTape.open(tapeDirectory, variateTapes.size()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return variateTapes.get(stream);
+        }
+    }
+
+    // Tapes wrap the streams once their numbers are assigned, the fields and the maps then refer to the wrappers.
+    private void wrapWithTapes() {
+        Map<Generator, Generator> wrappers = new Hashtable<>();
+        for (int i = 0; i < randomStreams.size(); i++) {
+            Generator generator = randomStreams.get(i);
+            Generator wrapper = switch (tapeMode) {
+                case RECORD -> new RecordingGenerator(generator, tapeDirectory, i, tapePart);
+                case REPLAY -> new TapeGenerator(generator, getVariateTape(i));
+            };
+            wrappers.put(generator, wrapper);
+            randomStreams.set(i, wrapper);
+        }
+
+        orderArrivalGenerator = wrappers.get(orderArrivalGenerator);
+        orderTypeProbabilityGenerator = wrappers.get(orderTypeProbabilityGenerator);
+        timeToMoveBetweenWorkplaceAndWarehouseGenerator = wrappers.get(timeToMoveBetweenWorkplaceAndWarehouseGenerator);
+        timeToPrepareMaterialInWarehouseGenerator = wrappers.get(timeToPrepareMaterialInWarehouseGenerator);
+        timeToMoveBetweenWorkplacesGenerator = wrappers.get(timeToMoveBetweenWorkplacesGenerator);
+        for (Map<Order.State, Generator> typeGenerators : actionTimeGenerators.values()) {
+            typeGenerators.replaceAll((orderState, generator) -> wrappers.get(generator));
+        }
+    }
+
+    private void finishRecordedReplication() {
+        for (Generator generator : randomStreams) {
+            if (generator instanceof RecordingGenerator recordingGenerator) {
+                recordingGenerator.finishReplication();
+            }
+        }
+    }
+
+    private Generator buffered(Generator generator) {
+        return generatorBlockSize > 0 ? new BufferedGenerator(generator, generatorBlockSize) : generator;
+    }
+
+    // Every replication restarts all streams from seeds derived from the master seed and its number, so it draws the
+    // same values whichever thread runs it and whatever configuration is simulated.
+    private void seedRandomStreams() {
+        boolean antithetic = antitheticVariates && currentReplication % 2 == 0;
+        int replication = antitheticVariates ? (currentReplication + 1) / 2 : currentReplication;
+        for (int i = 0; i < randomStreams.size(); i++) {
+            Generator generator = randomStreams.get(i);
+            generator.setSeed(RandomStreams.deriveSeed(masterSeed, i, replication));
+            generator.setAntithetic(antithetic);
+            generator.resetSampledMean();
+            if (generator instanceof TapeGenerator tapeGenerator) {
+                tapeGenerator.startReplication(currentReplication);
+            } else if (generator instanceof RecordingGenerator recordingGenerator) {
+                recordingGenerator.startReplication(currentReplication);
+            }
+        }
+    }
+
+    @Override
+    protected void afterSimulation() {
+        for (Generator generator : randomStreams) {
+            if (generator instanceof RecordingGenerator recordingGenerator) {
+                recordingGenerator.close();
+            }
+        }
+        if (replicationStore != null) {
+            replicationStore.flush();
+        }
+    }
+
+    private void closeReplicationStore() {
+        if (replicationStore == null) {
+            return;
+        }
+        try {
+            replicationStore.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        replicationStore = null;
+    }
+
+    @Override
+    protected void beforeExperiment() {
+        seedRandomStreams();
+
+        currentTime = 0.0;
+        numberOfArrivedOrders = 0;
+        numberOfDoneOrders = 0;
+        resetEventCalendar();
+
+        Order unfinishedOrder;
+        while ((unfinishedOrder = orderQueues.get(Order.State.NEW).poll()) != null) {
+            releaseOrder(unfinishedOrder);
+        }
+
+        for(Order.State state : Order.State.queueValues()) {
+            orderQueues.get(state).clear();
+        }
+
+        for (Workplace workplace : workplaces) {
+            if (!workplace.isFree()) {
+                releaseOrder(workplace.getOrder());
+            }
+            workplacePool.release(workplace);
+        }
+        workplaces.clear();
+        lastWorkplaceId = 0;
+
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            for (Carpenter carpenter: carpenterGroups.get(group)) {
+                carpenter.reset();
+            }
+        }
+
+        addEvent(orderArrivalEvents.acquire().reset(getNextOrderArrivalTime()));
+
+        experimentStatistics.reset();
+        warmupDetector.reset();
+    }
+
+    @Override
+    protected void afterExperiment() {
+        finishRecordedReplication();
+        if (warmupDetection) {
+            truncateWarmup();
+        }
+        recordReplication(this);
+    }
+
+    @Override
+    protected void afterBatchInterval() {
+        batchStatistics.orderWorkingTime.addTotals(experimentStatistics.orderWorkingTime.getSum(), experimentStatistics.orderWorkingTime.getCount());
+        batchStatistics.notYetStartedWorkOrders.addValue(orderQueues.get(Order.State.NEW).size());
+        for (Order.State state : Order.State.queueValues()) {
+            batchStatistics.averageQueueLengths.get(state).addTotals(experimentStatistics.queueLengths.get(state).getIntegral(currentTime), currentTime);
+        }
+        batchStatistics.averageOccupiedWorkplaces.addTotals(experimentStatistics.occupiedWorkplaces.getIntegral(currentTime), currentTime);
+
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            List<Carpenter> carpenters = carpenterGroups.get(group);
+            double busyTime = experimentStatistics.busyCarpenters.get(group).getIntegral(currentTime);
+            batchStatistics.averageBusyCarpenters.get(group).addTotals(busyTime, currentTime);
+            batchStatistics.groupWorkloads.get(group).addTotals(busyTime, currentTime * carpenters.size());
+            for (int i = 0; i < carpenters.size(); i++) {
+                Carpenter carpenter = carpenters.get(i);
+                batchStatistics.carpenterWorkloads.get(carpenter).addTotals(carpenter.getWorkTime(currentTime), currentTime);
+            }
+        }
+    }
+
+    @Override
+    protected SimulationCore createWorker() {
+        FurnitureSimulation worker = new FurnitureSimulation(
+                1,
+                getExecutionMode(),
+                getMaxTime(),
+                carpentersGroupSizes.get(Carpenter.Group.A),
+                carpentersGroupSizes.get(Carpenter.Group.B),
+                carpentersGroupSizes.get(Carpenter.Group.C)
+        );
+        worker.setTimeMultiplier(getTimeMultiplier());
+        worker.setEventCalendarType(getEventCalendarType());
+        worker.setWarmupDetection(warmupDetection);
+        worker.setAntitheticVariates(antitheticVariates);
+        worker.setGeneratorBlockSize(generatorBlockSize);
+        worker.setSamplingAlgorithms(exponentialAlgorithm, triangularAlgorithm);
+        worker.setVariateTapes(tapeDirectory, tapeMode);
+        worker.tapePart = ++createdWorkers;
+        worker.master = this;
+        return worker;
+    }
+
+    @Override
+    protected void mergeExperiment(SimulationCore worker) {
+        FurnitureSimulation source = (FurnitureSimulation) worker;
+        source.finishRecordedReplication();
+        if (source.warmupDetection) {
+            source.truncateWarmup();
+        }
+        recordReplication(source);
+    }
+
+    @Override
+    protected List<Statistics> getStoppingIndicators() {
+        List<Statistics> indicators = new ArrayList<>();
+        indicators.add(replicationStatistics.orderWorkingTime);
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            indicators.add(replicationStatistics.groupWorkloads.get(group));
+        }
+        return indicators;
+    }
+
+    @Override
+    protected Serializable createCheckpoint() {
+        Map<Integer, Statistics> carpenterWorkloads = new HashMap<>();
+        for (Map.Entry<Carpenter, Statistics> entry : replicationStatistics.carpenterWorkloads.entrySet()) {
+            carpenterWorkloads.put(entry.getKey().getId(), entry.getValue());
+        }
+
+        return new Checkpoint(
+                new Hashtable<>(carpentersGroupSizes),
+                createCheckpointSettings(),
+                masterSeed,
+                replicationStatistics.orderWorkingTime,
+                replicationStatistics.orderWorkingTimeControlled,
+                replicationStatistics.orderWorkingTimeP95,
+                replicationStatistics.orderWorkingTimeP99,
+                replicationStatistics.notYetStartedWorkOrders,
+                replicationStatistics.warmupTime,
+                new Hashtable<>(replicationStatistics.averageQueueLengths),
+                replicationStatistics.averageOccupiedWorkplaces,
+                new Hashtable<>(replicationStatistics.averageBusyCarpenters),
+                new Hashtable<>(replicationStatistics.groupWorkloads),
+                carpenterWorkloads,
+                stageTimes,
+                replicationStore != null ? replicationStore.getRowCount() : 0
+        );
+    }
+
+    @Override
+    protected void restoreCheckpoint(Serializable state) {
+        Checkpoint checkpoint = (Checkpoint) state;
+        if (!checkpoint.carpentersGroupSizes().equals(carpentersGroupSizes)) {
+            throw new IllegalArgumentException("Checkpoint was taken with group sizes " + checkpoint.carpentersGroupSizes() + " but simulation has " + carpentersGroupSizes);
+        }
+        CheckpointSettings settings = createCheckpointSettings();
+        if (!settings.equals(checkpoint.settings())) {
+            throw new IllegalArgumentException("Checkpoint was taken with settings " + checkpoint.settings() + " but simulation has " + settings);
+        }
+
+        // Random streams of the remaining replications are derived from the master seed of the interrupted run.
+        masterSeed = checkpoint.masterSeed();
+        recordedReplications = doneReplications;
+
+        replicationStatistics.orderWorkingTime.merge(checkpoint.orderWorkingTime());
+        mergeStageTimes(stageTimes, checkpoint.stageTimes());
+        replicationStatistics.orderWorkingTimeControlled.merge(checkpoint.orderWorkingTimeControlled());
+        replicationStatistics.orderWorkingTimeP95.merge(checkpoint.orderWorkingTimeP95());
+        replicationStatistics.orderWorkingTimeP99.merge(checkpoint.orderWorkingTimeP99());
+        replicationStatistics.notYetStartedWorkOrders.merge(checkpoint.notYetStartedWorkOrders());
+        replicationStatistics.warmupTime.merge(checkpoint.warmupTime());
+        for (Order.State queueState : Order.State.queueValues()) {
+            replicationStatistics.averageQueueLengths.get(queueState).merge(checkpoint.averageQueueLengths().get(queueState));
+        }
+        replicationStatistics.averageOccupiedWorkplaces.merge(checkpoint.averageOccupiedWorkplaces());
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            replicationStatistics.averageBusyCarpenters.get(group).merge(checkpoint.averageBusyCarpenters().get(group));
+            replicationStatistics.groupWorkloads.get(group).merge(checkpoint.groupWorkloads().get(group));
+            for (Carpenter carpenter : carpenterGroups.get(group)) {
+                replicationStatistics.carpenterWorkloads.get(carpenter).merge(checkpoint.carpenterWorkloads().get(carpenter.getId()));
+            }
+        }
+
+        // Rows stored after the checkpoint belong to replications that are run again.
+        if (replicationStoreFile != null && checkpoint.storedReplications() > 0) {
+            try {
+                replicationStore = ReplicationStore.openForAppending(replicationStoreFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!replicationStore.getColumnNames().equals(getReplicationStoreColumns())) {
+                throw new IllegalArgumentException("Replication store " + replicationStoreFile + " has columns " + replicationStore.getColumnNames() + " but simulation has " + getReplicationStoreColumns());
+            }
+            replicationStore.truncate(checkpoint.storedReplications());
+        }
+    }
+
+    // Settings that change what the results of a replication mean, a checkpoint is only continued with the same ones.
+    private CheckpointSettings createCheckpointSettings() {
+        return new CheckpointSettings(
+                antitheticVariates,
+                warmupDetection,
+                exponentialAlgorithm,
+                triangularAlgorithm,
+                batchMeansMethod,
+                getBatchIntervalLength(),
+                controlVariates.size()
+        );
+    }
+
+    private record CheckpointSettings(
+            boolean antitheticVariates,
+            boolean warmupDetection,
+            ExponentialGenerator.Algorithm exponentialAlgorithm,
+            TriangularGenerator.Algorithm triangularAlgorithm,
+            BatchMeans.Method batchMeansMethod,
+            double batchIntervalLength,
+            int numberOfControlVariates
+    ) implements Serializable { }
+
+    private record Checkpoint(
+            Map<Carpenter.Group, Integer> carpentersGroupSizes,
+            CheckpointSettings settings,
+            long masterSeed,
+            Statistics orderWorkingTime,
+            ControlVariateStatistics orderWorkingTimeControlled,
+            Statistics orderWorkingTimeP95,
+            Statistics orderWorkingTimeP99,
+            Statistics notYetStartedWorkOrders,
+            Statistics warmupTime,
+            Map<Order.State, Statistics> averageQueueLengths,
+            Statistics averageOccupiedWorkplaces,
+            Map<Carpenter.Group, Statistics> averageBusyCarpenters,
+            Map<Carpenter.Group, Statistics> groupWorkloads,
+            Map<Integer, Statistics> carpenterWorkloads,
+            Map<Order.Type, Map<Order.State, LogHistogram>> stageTimes,
+            int storedReplications
+    ) implements Serializable { }
+
+    private record PendingReplication(
+            FurnitureSimulationReplicationStatistics statistics,
+            Map<Order.Type, Map<Order.State, LogHistogram>> stageTimes,
+            double[] storedRow
+    ) { }
+
+    // Replications are recorded in the order of their numbers whichever worker finishes them first, so that the
+    // floating point sums and the stored rows are the same for every parallelism. Those finished ahead of their turn
+    // and the replications of antithetic pairs wait until the replications before them are recorded.
+    private void recordReplication(FurnitureSimulation source) {
+        if (!antitheticVariates && source.currentReplication == recordedReplications + 1) {
+            mergeStageTimes(stageTimes, source.experimentStatistics.stageTimes);
+            if (replicationStoreFile != null) {
+                appendStoredRow(fillStoredRow(source, replicationStoreRow));
+            }
+            recordExperiment(source, replicationStatistics);
+            recordedReplications++;
+        } else {
+            FurnitureSimulationReplicationStatistics statistics = new FurnitureSimulationReplicationStatistics();
+            addCarpenterStatistics(statistics);
+            recordExperiment(source, statistics);
+            // At most about one replication per worker waits, so the histograms are reused instead of allocated.
+            Map<Order.Type, Map<Order.State, LogHistogram>> pendingStageTimes = freeStageTimes.isEmpty() ? createStageTimeHistograms() : freeStageTimes.pop();
+            mergeStageTimes(pendingStageTimes, source.experimentStatistics.stageTimes);
+            double[] storedRow = replicationStoreFile != null ? fillStoredRow(source, new double[replicationStoreRow.length]) : null;
+            pendingReplications.put(source.currentReplication, new PendingReplication(statistics, pendingStageTimes, storedRow));
+        }
+
+        // An antithetic pair contributes the average of its two replications as one observation.
+        int replicationsPerObservation = antitheticVariates ? 2 : 1;
+        while (arePending(recordedReplications + 1, replicationsPerObservation)) {
+            FurnitureSimulationReplicationStatistics observation = new FurnitureSimulationReplicationStatistics();
+            addCarpenterStatistics(observation);
+            for (int i = 0; i < replicationsPerObservation; i++) {
+                PendingReplication pending = pendingReplications.remove(++recordedReplications);
+                observation.addMeans(pending.statistics());
+                mergeStageTimes(stageTimes, pending.stageTimes());
+                resetStageTimes(pending.stageTimes());
+                freeStageTimes.push(pending.stageTimes());
+                if (pending.storedRow() != null) {
+                    appendStoredRow(pending.storedRow());
+                }
+            }
+            replicationStatistics.addMeans(observation);
+        }
+    }
+
+    private boolean arePending(int firstReplication, int count) {
+        for (int i = firstReplication; i < firstReplication + count; i++) {
+            if (!pendingReplications.containsKey(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected int getCheckpointedReplications() {
+        return recordedReplications;
+    }
+
+    /**
+     * Number of replications in the results. Replications a parallel run finished ahead of an earlier one that was
+     * still running when the run stopped, and the first replication of an incomplete antithetic pair, are not.
+     */
+    public int getRecordedReplications() {
+        return recordedReplications;
+    }
+
+    private void recordExperiment(FurnitureSimulation source, FurnitureSimulationReplicationStatistics target) {
+        double duration = source.currentTime - source.experimentStatistics.startTime;
+        if (source.warmupDetection) {
+            target.warmupTime.addValue(source.experimentStatistics.startTime);
+        }
+        target.orderWorkingTime.addValue(source.experimentStatistics.orderWorkingTime.getMean());
+
+        double[] controlDeviations = new double[source.controlVariates.size()];
+        for (int i = 0; i < controlDeviations.length; i++) {
+            Generator generator = source.controlVariates.get(i);
+            double sampledMean = generator.getSampledMean();
+            controlDeviations[i] = Double.isNaN(sampledMean) ? 0.0 : sampledMean - generator.getMean();
+        }
+        target.orderWorkingTimeControlled.addValue(source.experimentStatistics.orderWorkingTime.getMean(), controlDeviations);
+
+        if (source.experimentStatistics.orderWorkingTimeHistogram.getCount() > 0) {
+            target.orderWorkingTimeP95.addValue(source.experimentStatistics.orderWorkingTimeHistogram.getQuantile(0.95));
+            target.orderWorkingTimeP99.addValue(source.experimentStatistics.orderWorkingTimeHistogram.getQuantile(0.99));
+        }
+        target.notYetStartedWorkOrders.addValue(source.orderQueues.get(Order.State.NEW).size());
+        for (Order.State state : Order.State.queueValues()) {
+            target.averageQueueLengths.get(state).addValue(source.experimentStatistics.queueLengths.get(state).getMean(source.currentTime));
+        }
+        target.averageOccupiedWorkplaces.addValue(source.experimentStatistics.occupiedWorkplaces.getMean(source.currentTime));
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            target.averageBusyCarpenters.get(group).addValue(source.experimentStatistics.busyCarpenters.get(group).getMean(source.currentTime));
+        }
+
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            List<Carpenter> carpenters = carpenterGroups.get(group);
+            List<Carpenter> sourceCarpenters = source.carpenterGroups.get(group);
+            target.groupWorkloads.get(group).addValue(sourceCarpenters.stream().mapToDouble(c -> c.workTime).sum() / (duration * sourceCarpenters.size()));
+
+            for (int i = 0; i < carpenters.size(); i++) {
+                target.carpenterWorkloads.get(carpenters.get(i)).addValue(sourceCarpenters.get(i).workTime / duration);
+            }
+        }
+    }
+
+    private double[] fillStoredRow(FurnitureSimulation source, double[] replicationStoreRow) {
+        double duration = source.currentTime - source.experimentStatistics.startTime;
+        int column = 0;
+        replicationStoreRow[column++] = source.currentReplication;
+        replicationStoreRow[column++] = source.experimentStatistics.orderWorkingTime.getMean();
+        replicationStoreRow[column++] = source.orderQueues.get(Order.State.NEW).size();
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            List<Carpenter> sourceCarpenters = source.carpenterGroups.get(group);
+            double workTime = 0.0;
+            for (int i = 0; i < sourceCarpenters.size(); i++) {
+                workTime += sourceCarpenters.get(i).workTime;
+            }
+            replicationStoreRow[column++] = workTime / (duration * sourceCarpenters.size());
+        }
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            List<Carpenter> sourceCarpenters = source.carpenterGroups.get(group);
+            for (int i = 0; i < sourceCarpenters.size(); i++) {
+                replicationStoreRow[column++] = sourceCarpenters.get(i).workTime / duration;
+            }
+        }
+
+        return replicationStoreRow;
+    }
+
+    private void appendStoredRow(double[] row) {
+        try {
+            if (replicationStore == null) {
+                replicationStore = ReplicationStore.create(replicationStoreFile, getReplicationStoreColumns());
+            }
+            replicationStore.append(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void addOrderWorkingTime(double orderWorkingTime) {
+        experimentStatistics.addOrderWorkingTime(orderWorkingTime);
+        if (warmupDetection && warmupDetector.addObservation(currentTime, orderWorkingTime)) {
+            recordWarmupTotals();
+        }
+    }
+
+    // Integrals of the time-weighted statistics and work times of the carpenters at the end of every MSER batch, the
+    // detector only knows at the end of the replication which batch is the truncation point.
+    private void recordWarmupTotals() {
+        int offset = (warmupDetector.getCount() / WarmupDetector.BATCH_SIZE - 1) * warmupTotalsStride;
+        if (offset + warmupTotalsStride > warmupTotals.length) {
+            warmupTotals = Arrays.copyOf(warmupTotals, Math.max(warmupTotals.length * 2, offset + warmupTotalsStride));
+        }
+
+        for (Order.State state : queueStates) {
+            warmupTotals[offset++] = experimentStatistics.queueLengths.get(state).getIntegral(currentTime);
+        }
+        warmupTotals[offset++] = experimentStatistics.occupiedWorkplaces.getIntegral(currentTime);
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            warmupTotals[offset++] = experimentStatistics.busyCarpenters.get(group).getIntegral(currentTime);
+            List<Carpenter> carpenters = carpenterGroups.get(group);
+            for (int i = 0; i < carpenters.size(); i++) {
+                warmupTotals[offset++] = carpenters.get(i).getWorkTime(currentTime);
+            }
+        }
+    }
+
+    private void truncateWarmup() {
+        int truncationPoint = warmupDetector.getTruncationPoint();
+        if (truncationPoint == 0) {
+            return;
+        }
+        double truncationTime = warmupDetector.getTruncationTime();
+
+        experimentStatistics.orderWorkingTime.reset();
+        experimentStatistics.orderWorkingTimeHistogram.reset();
+        for (int i = truncationPoint; i < warmupDetector.getCount(); i++) {
+            experimentStatistics.addOrderWorkingTime(warmupDetector.getValue(i));
+        }
+
+        int offset = (truncationPoint / WarmupDetector.BATCH_SIZE - 1) * warmupTotalsStride;
+        for (Order.State state : queueStates) {
+            experimentStatistics.queueLengths.get(state).discardBefore(truncationTime, warmupTotals[offset++]);
+        }
+        experimentStatistics.occupiedWorkplaces.discardBefore(truncationTime, warmupTotals[offset++]);
+        for (Carpenter.Group group : Carpenter.Group.values()) {
+            experimentStatistics.busyCarpenters.get(group).discardBefore(truncationTime, warmupTotals[offset++]);
+            List<Carpenter> carpenters = carpenterGroups.get(group);
+            for (int i = 0; i < carpenters.size(); i++) {
+                carpenters.get(i).workTime -= warmupTotals[offset++];
+            }
+        }
+
+        experimentStatistics.startTime = truncationTime;
+    }
+
+    public Carpenter getFreeCarpenterFromGroup(Carpenter.Group group) {
+        List<Carpenter> carpenters = carpenterGroups.get(group);
+        for (int i = 0; i < carpenters.size(); i++) {
+            Carpenter carpenter = carpenters.get(i);
+            if (carpenter.getState() == Carpenter.State.FREE) {
+                return carpenter;
+            }
+        }
+        return null;
+    }
+
+    public void addOrderToQueue(Order order) {
+        Queue<Order> queue = orderQueues.get(order.getState());
+        if (!queue.add(order)) {
+            throw new RuntimeException("Something went wrong while adding to orders queue.");
+        }
+
+        if (queue.size() > orderQueueHighWaterMarks[order.getState().ordinal()]) {
+            orderQueueHighWaterMarks[order.getState().ordinal()] = queue.size();
+            countCapacityGrowth();
+        }
+
+        experimentStatistics.queueLengths.get(order.getState()).setValue(currentTime, queue.size());
+    }
+
+    public Order getNextOrderFromQueue(Order.State state) {
+        Queue<Order> queue = orderQueues.get(state);
+        Order order = queue.poll();
+        if (order != null) {
+            experimentStatistics.queueLengths.get(state).setValue(currentTime, queue.size());
+        }
+        return order;
+    }
+
+    void carpenterStateChanged(Carpenter carpenter, double time) {
+        TimeWeightedStatistics busy = experimentStatistics.busyCarpenters.get(carpenter.getGroup());
+        busy.setValue(time, busy.getValue() + (carpenter.getState() == Carpenter.State.FREE ? -1 : 1));
+    }
+
+    void orderStateChanged(Order order, Order.State previousState, double sojournTime) {
+        experimentStatistics.stageTimes.get(order.getType()).get(previousState).addValue(sojournTime);
+    }
+
+    void workplaceOccupancyChanged(int change) {
+        experimentStatistics.occupiedWorkplaces.setValue(currentTime, experimentStatistics.occupiedWorkplaces.getValue() + change);
+    }
+
+    public double getNextOrderArrivalTime() {
+        if (orderArrivalGenerator == null) {
+            throw new IllegalStateException("Order arrival generator not set.");
+        }
+        return orderArrivalGenerator.nextDouble();
+    }
+
+    public double getNextTimeToMoveBetweenWorkplaceAndWarehouse() {
+        if (timeToMoveBetweenWorkplaceAndWarehouseGenerator == null) {
+            throw new IllegalStateException("Time to move between assembly site and warehouse generator not set.");
+        }
+        return timeToMoveBetweenWorkplaceAndWarehouseGenerator.nextDouble();
+    }
+
+    public double getNextTimeToPrepareMaterialInWarehouse() {
+        if (timeToPrepareMaterialInWarehouseGenerator == null) {
+            throw new IllegalStateException("Time to prepare material in warehouse generator not set.");
+        }
+        return timeToPrepareMaterialInWarehouseGenerator.nextDouble();
+    }
+
+    public double getNextTimeToMoveBetweenWorkplaces() {
+        if (timeToMoveBetweenWorkplacesGenerator == null) {
+            throw new IllegalStateException("Time to move between assembly sites generator not set.");
+        }
+        return timeToMoveBetweenWorkplacesGenerator.nextDouble();
+    }
+
+    public double getNextActionTime(Order order) {
+        return actionTimeGenerators.get(order.getType()).get(order.getState()).nextDouble();
+    }
+
+    public Order acquireOrder(Order.Type type, double arrivalTime) {
+        Order order = orderPool.acquire();
+        order.reset(type, arrivalTime);
+        return order;
+    }
+
+    public void releaseOrder(Order order) {
+        orderPool.release(order);
+    }
+
+    public void addWorkplace(Workplace workplace) {
+        workplaces.add(workplace);
+    }
+
+    public Workplace getFreeWorkplace() {
+        for (int i = 0; i < workplaces.size(); i++) {
+            Workplace workplace = workplaces.get(i);
+            if (workplace.isFree()) {
+                return workplace;
+            }
+        }
+
+        Workplace workplace = workplacePool.acquire();
+        workplace.reset(++lastWorkplaceId);
+        addWorkplace(workplace);
+
+        return workplace;
+    }
+
+    public Order.Type getNextOrderType() {
+        if (orderTypeProbabilityGenerator == null) {
+            throw new IllegalStateException("Order type probability generator not set.");
+        }
+
+        double orderTypeProbability = orderTypeProbabilityGenerator.nextDouble();
+
+        if (orderTypeProbability < 0.5) {
+            return Order.Type.TABLE;
+        } else if (orderTypeProbability < 0.65) {
+            return Order.Type.CHAIR;
+        } else {
+            return Order.Type.WARDROBE;
+        }
+    }
+
+    public void incrementNumberOfArrivedOrders() {
+        numberOfArrivedOrders++;
+    }
+
+    public void incrementNumberOfDoneOrders() {
+        numberOfDoneOrders++;
+    }
+
+    public double getCarpenterMoveTime(Carpenter carpenter, Workplace toWorkplace) {
+        return switch (carpenter.getPosition()) {
+            case WORKPLACE -> carpenter.getWorkplace().getId() != toWorkplace.getId() ? getNextTimeToMoveBetweenWorkplaces() : 0.0;
+            case WAREHOUSE -> getNextTimeToMoveBetweenWorkplaceAndWarehouse();
+        };
+    }
+
+    // ------------------------------------------------ EVENTS ------------------------------------------------
+    private abstract static class FurnitureSimulationEvent extends Event {
+        protected Workplace workplace;
+
+        public FurnitureSimulationEvent(FurnitureSimulation simulation) {
+            super(simulation, 0.0);
+        }
+
+        public FurnitureSimulationEvent reset(double executionTime, Workplace workplace) {
+            setExecutionTime(executionTime);
+            this.workplace = workplace;
+            return this;
+        }
+
+        public FurnitureSimulationEvent reset(double executionTime) {
+            return reset(executionTime, null);
+        }
+    }
+
+    private static class OrderArrivalEvent extends FurnitureSimulationEvent {
+        public OrderArrivalEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            Order order = simulation.acquireOrder(simulation.getNextOrderType(), executionTime);
+            simulation.incrementNumberOfArrivedOrders();
+
+            Carpenter freeCarpenter = simulation.getFreeCarpenterFromGroup(Carpenter.Group.A);
+            if (freeCarpenter != null) {
+                Workplace workplace = simulation.getFreeWorkplace();
+                workplace.assignOrder(order);
+                workplace.assignCarpenter(freeCarpenter);
+                simulation.addEvent(simulation.sawingStartEvents.acquire().reset(executionTime, workplace));
+            } else {
+                simulation.addOrderToQueue(order);
+            }
+
+            simulation.addEvent(simulation.orderArrivalEvents.acquire().reset(executionTime + simulation.getNextOrderArrivalTime()));
+        }
+    }
+
+    private static class FurnitureSawingStartEvent extends FurnitureSimulationEvent {
+        public FurnitureSawingStartEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            Carpenter carpenter = workplace.getCarpenter();
+
+            carpenter.setState(Carpenter.State.WORKING, executionTime);
+
+            Order order = workplace.getOrder();
+            order.setState(Order.State.SAWING, executionTime);
+
+            double endTime = executionTime;
+
+            if (carpenter.getPosition() == Carpenter.Position.WORKPLACE) {
+                endTime += simulation.getNextTimeToMoveBetweenWorkplaceAndWarehouse();
+            }
+
+            endTime += simulation.getNextTimeToPrepareMaterialInWarehouse() + simulation.getNextTimeToMoveBetweenWorkplaceAndWarehouse();
+
+            endTime += simulation.getNextActionTime(order);
+            
+            carpenter.setPosition(Carpenter.Position.WORKPLACE);
+            carpenter.setWorkplace(workplace);
+
+            simulation.addEvent(simulation.sawingEndEvents.acquire().reset(endTime, workplace));
+        }
+    }
+
+    private static class FurnitureSawingEndEvent extends FurnitureSimulationEvent {
+        public FurnitureSawingEndEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            Order order = workplace.getOrder();
+            order.setState(Order.State.SAWED, executionTime);
+            workplace.getCarpenter().setState(Carpenter.State.FREE, executionTime);
+            workplace.unassignCarpenter();
+
+            Carpenter freeCarpenter = simulation.getFreeCarpenterFromGroup(Carpenter.Group.C);
+            if (freeCarpenter != null) {
+                workplace.assignCarpenter(freeCarpenter);
+                simulation.addEvent(simulation.soakingStartEvents.acquire().reset(executionTime, workplace));
+            } else {
+                simulation.addOrderToQueue(order);
+            }
+
+            Order nextNewOrder = simulation.getNextOrderFromQueue(Order.State.NEW);
+            if (nextNewOrder != null) {
+                Workplace freeWorkplace = simulation.getFreeWorkplace();
+                freeWorkplace.assignOrder(nextNewOrder);
+                freeWorkplace.assignCarpenter(simulation.getFreeCarpenterFromGroup(Carpenter.Group.A));
+                simulation.addEvent(simulation.sawingStartEvents.acquire().reset(executionTime, freeWorkplace));
+            }
+        }
+    }
+
+    private static class FurnitureSoakingStartEvent extends FurnitureSimulationEvent {
+        public FurnitureSoakingStartEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            Carpenter carpenter = workplace.getCarpenter();
+            carpenter.setState(Carpenter.State.WORKING, executionTime);
+
+            Order order = workplace.getOrder();
+            order.setState(Order.State.SOAKING, executionTime);
+
+            double endTime = simulation.getNextActionTime(order);
+
+            endTime += executionTime + simulation.getCarpenterMoveTime(carpenter, workplace);
+
+            carpenter.setPosition(Carpenter.Position.WORKPLACE);
+            carpenter.setWorkplace(workplace);
+            simulation.addEvent(simulation.soakingEndEvents.acquire().reset(endTime, workplace));
+        }
+    }
+
+    private static class FurnitureSoakingEndEvent extends FurnitureSimulationEvent {
+        public FurnitureSoakingEndEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            workplace.getCarpenter().setState(Carpenter.State.FREE, executionTime);
+
+            Order order = workplace.getOrder();
+            order.setState(Order.State.SOAKED, executionTime);
+            workplace.unassignCarpenter();
+
+            Carpenter freeCarpenter = simulation.getFreeCarpenterFromGroup(Carpenter.Group.B);
+            if (freeCarpenter != null) {
+                workplace.assignCarpenter(freeCarpenter);
+                simulation.addEvent(simulation.assemblingStartEvents.acquire().reset(simulation.getCurrentTime(), workplace));
+            } else {
+                simulation.addOrderToQueue(order);
+            }
+
+            Order nextAssembledOrder = simulation.getNextOrderFromQueue(Order.State.ASSEMBLED);
+            if (nextAssembledOrder != null) {
+                Workplace nextAssembledOrderWorkplace = nextAssembledOrder.getWorkplace();
+                nextAssembledOrderWorkplace.assignCarpenter(simulation.getFreeCarpenterFromGroup(Carpenter.Group.C));
+                simulation.addEvent(simulation.fittingsInstallationStartEvents.acquire().reset(executionTime, nextAssembledOrderWorkplace));
+            } else {
+                Order nextSawedOrder = simulation.getNextOrderFromQueue(Order.State.SAWED);
+                if (nextSawedOrder != null) {
+                    Workplace nextSawedOrderWorkplace = nextSawedOrder.getWorkplace();
+                    nextSawedOrderWorkplace.assignCarpenter(simulation.getFreeCarpenterFromGroup(Carpenter.Group.C));
+                    simulation.addEvent(simulation.soakingStartEvents.acquire().reset(executionTime, nextSawedOrderWorkplace));
+                }
+            }
+        }
+    }
+
+    private static class FurnitureAssemblingStartEvent extends FurnitureSimulationEvent {
+        public FurnitureAssemblingStartEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            Order order = workplace.getOrder();
+            order.setState(Order.State.ASSEMBLING, executionTime);
+
+            Carpenter carpenter = workplace.getCarpenter();
+            carpenter.setState(Carpenter.State.WORKING, executionTime);
+
+            double endTime = simulation.getNextActionTime(order);
+
+            endTime += executionTime + simulation.getCarpenterMoveTime(carpenter, workplace);
+
+            carpenter.setPosition(Carpenter.Position.WORKPLACE);
+            carpenter.setWorkplace(workplace);
+            simulation.addEvent(simulation.assemblingEndEvents.acquire().reset(endTime, workplace));
+        }
+    }
+
+    private static class FurnitureAssemblingEndEvent extends FurnitureSimulationEvent {
+        public FurnitureAssemblingEndEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            workplace.getCarpenter().setState(Carpenter.State.FREE, executionTime);
+            workplace.unassignCarpenter();
+
+            Order order = workplace.getOrder();
+
+            if (order.getType() == Order.Type.WARDROBE) {
+                order.setState(Order.State.ASSEMBLED, executionTime);
+
+                Carpenter freeCarpenter = simulation.getFreeCarpenterFromGroup(Carpenter.Group.C);
+                if (freeCarpenter != null) {
+                    workplace.assignCarpenter(freeCarpenter);
+                    simulation.addEvent(simulation.fittingsInstallationStartEvents.acquire().reset(executionTime, workplace));
+                } else {
+                    simulation.addOrderToQueue(order);
+                }
+            } else {
+                order.setState(Order.State.DONE, executionTime);
+                simulation.incrementNumberOfDoneOrders();
+                workplace.unassignOrder();
+                simulation.addOrderWorkingTime(executionTime - order.getArrivalTime());
+                simulation.releaseOrder(order);
+            }
+
+            Order nextSoakedOrder = simulation.getNextOrderFromQueue(Order.State.SOAKED);
+            if (nextSoakedOrder != null) {
+                Workplace nextSoakedOrderWorkplace = nextSoakedOrder.getWorkplace();
+                nextSoakedOrderWorkplace.assignCarpenter(simulation.getFreeCarpenterFromGroup(Carpenter.Group.B));
+                simulation.addEvent(simulation.assemblingStartEvents.acquire().reset(executionTime, nextSoakedOrderWorkplace));
+            }
+        }
+    }
+
+    private static class FurnitureFittingsInstallationStartEvent extends FurnitureSimulationEvent {
+        public FurnitureFittingsInstallationStartEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            Carpenter carpenter = workplace.getCarpenter();
+            carpenter.setState(Carpenter.State.WORKING, executionTime);
+
+            Order order = workplace.getOrder();
+            order.setState(Order.State.FITTINGS_INSTALLATION, executionTime);
+
+            if (order.getType() != Order.Type.WARDROBE) {
+                throw new IllegalStateException("Fittings are not installing on this type of furniture : " + order.getType());
+            }
+
+            double endTime = executionTime + simulation.getNextActionTime(order) + simulation.getCarpenterMoveTime(carpenter, workplace);
+
+            carpenter.setPosition(Carpenter.Position.WORKPLACE);
+            carpenter.setWorkplace(workplace);
+            simulation.addEvent(simulation.fittingsInstallationEndEvents.acquire().reset(endTime, workplace));
+        }
+    }
+
+    private static class FurnitureFittingsInstallationEndEvent extends FurnitureSimulationEvent {
+        public FurnitureFittingsInstallationEndEvent(FurnitureSimulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void execute() {
+            FurnitureSimulation simulation = (FurnitureSimulation) super.simulation;
+
+            workplace.getCarpenter().setState(Carpenter.State.FREE, executionTime);
+            Order order = workplace.getOrder();
+            order.setState(Order.State.DONE, executionTime);
+            simulation.incrementNumberOfDoneOrders();
+            workplace.unassignCarpenter();
+            workplace.unassignOrder();
+            simulation.addOrderWorkingTime(executionTime - order.getArrivalTime());
+            simulation.releaseOrder(order);
+
+            Order nextAssembledOrder = simulation.getNextOrderFromQueue(Order.State.ASSEMBLED);
+            if (nextAssembledOrder != null) {
+                Workplace nextAssembledOrderWorkplace = nextAssembledOrder.getWorkplace();
+                nextAssembledOrderWorkplace.assignCarpenter(simulation.getFreeCarpenterFromGroup(Carpenter.Group.C));
+                simulation.addEvent(simulation.fittingsInstallationStartEvents.acquire().reset(executionTime, nextAssembledOrderWorkplace));
+            } else {
+                Order nextSawedOrder = simulation.getNextOrderFromQueue(Order.State.SAWED);
+                if (nextSawedOrder != null) {
+                    Workplace nextSawedOrderWorkplace = nextSawedOrder.getWorkplace();
+                    nextSawedOrderWorkplace.assignCarpenter(simulation.getFreeCarpenterFromGroup(Carpenter.Group.C));
+                    simulation.addEvent(simulation.soakingStartEvents.acquire().reset(executionTime, nextSawedOrderWorkplace));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package nufo.diss;
+
+import java.util.PriorityQueue;
+
+public class HeapEventCalendar implements EventCalendar {
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+
+    @Override
+    public void add(Event event) {
+        events.add(event);
+    }
+
+    @Override
+    public Event poll() {
+        return events.poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return events.size();
+    }
+
+    @Override
+    public void clear() {
+        events.clear();
+    }
+}
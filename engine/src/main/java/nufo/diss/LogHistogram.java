@@ -0,0 +1,143 @@
+package nufo.diss;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Streaming quantile estimator with logarithmically sized buckets: every bucket spans values within a constant
+ * relative accuracy of each other, so the estimate of any quantile is within that relative error of the true value.
+ * The buckets are allocated once for a fixed value range, adding a value is O(1) without allocation and two
+ * histograms with the same layout are merged by adding their bucket counts.
+ */
+public class LogHistogram implements Serializable {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.005;
+    private static final long serialVersionUID = -4909252445323457954L;
+
+    private final double relativeAccuracy;
+    private final double minValue;
+    private final double maxValue;
+    private final double logGamma;
+    private final int indexOffset;
+    private final long[] counts;
+    private long count;
+    private long belowMinCount;
+    private double min;
+    private double max;
+
+    /**
+     * Histogram for durations from one second to about thirty years with {@link #DEFAULT_RELATIVE_ACCURACY}.
+     */
+    public LogHistogram() {
+        this(DEFAULT_RELATIVE_ACCURACY, 1.0, 1e9);
+    }
+
+    /**
+     * Values below the minimum are counted together, values above the maximum go into the last bucket, both are
+     * reported exactly when they are the smallest or largest value.
+     */
+    public LogHistogram(double relativeAccuracy, double minValue, double maxValue) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1 but is " + relativeAccuracy);
+        }
+        if (!(minValue > 0 && maxValue > minValue)) {
+            throw new IllegalArgumentException("Invalid value range <" + minValue + ", " + maxValue + ">");
+        }
+
+        this.relativeAccuracy = relativeAccuracy;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        this.indexOffset = rawIndexOf(minValue);
+        this.counts = new long[rawIndexOf(maxValue) - indexOffset + 1];
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    public void addValue(double value) {
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+
+        if (value < minValue) {
+            belowMinCount++;
+        } else {
+            counts[Math.min(rawIndexOf(value) - indexOffset, counts.length - 1)]++;
+        }
+    }
+
+    public void merge(LogHistogram other) {
+        if (other.relativeAccuracy != relativeAccuracy || other.minValue != minValue || other.maxValue != maxValue) {
+            throw new IllegalArgumentException("Only histograms with the same relative accuracy and value range can be merged.");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        belowMinCount += other.belowMinCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Estimate of the q-quantile, NaN while the histogram is empty.
+     */
+    public double getQuantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1 but is " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        long rank = (long) (q * (count - 1));
+        if (rank < belowMinCount || rank == 0) {
+            return min;
+        }
+        if (rank == count - 1) {
+            return max;
+        }
+
+        long seen = belowMinCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                double gamma = Math.exp(logGamma);
+                double estimate = 2 * Math.exp((i + indexOffset) * logGamma) / (gamma + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        belowMinCount = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public Data toData() {
+        return new Data(count, getQuantile(0.5), getQuantile(0.95), getQuantile(0.99), max);
+    }
+
+    private int rawIndexOf(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    public record Data(
+            long count,
+            double median,
+            double p95,
+            double p99,
+            double max
+    ) {}
+}
@@ -0,0 +1,53 @@
+package nufo.diss;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+public class ObjectPool<T> {
+    private final EventSimulation simulation;
+    private final Supplier<T> factory;
+    private Object[] freeObjects;
+    private int size;
+    private int created;
+
+    public ObjectPool(EventSimulation simulation, Supplier<T> factory) {
+        this.simulation = simulation;
+        this.factory = factory;
+        this.freeObjects = new Object[16];
+        this.size = 0;
+        this.created = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (size == 0) {
+            return create();
+        }
+
+        T object = (T) freeObjects[--size];
+        freeObjects[size] = null;
+        return object;
+    }
+
+    public void release(T object) {
+        freeObjects[size++] = object;
+    }
+
+    protected T create() {
+        // The free list can always hold every object the pool ever created, so release never allocates.
+        if (++created > freeObjects.length) {
+            freeObjects = Arrays.copyOf(freeObjects, 2 * freeObjects.length);
+        }
+        simulation.countCapacityGrowth();
+
+        return factory.get();
+    }
+
+    public int getNumberOfFreeObjects() {
+        return size;
+    }
+
+    public int getNumberOfCreatedObjects() {
+        return created;
+    }
+}
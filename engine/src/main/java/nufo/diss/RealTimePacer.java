@@ -0,0 +1,90 @@
+package nufo.diss;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the real-time mode against the wall clock. Deadlines are computed from an anchor, a wall-clock timestamp and
+ * the simulation time it belongs to, instead of adding up per-tick sleeps, so the pacing does not drift. The
+ * simulation thread parks until shortly before a deadline and only spins for the last microseconds of it.
+ */
+class RealTimePacer {
+    private static final long SPIN_NANOS = 50_000;
+    private static final long MIN_TICK_NANOS = 1_000_000;
+    private static final long MAX_LAG_NANOS = 100_000_000;
+
+    private final EventSimulation simulation;
+    private boolean anchored;
+    private long anchorNanos;
+    private double anchorSimulationTime;
+    private double multiplier;
+
+    RealTimePacer(EventSimulation simulation) {
+        this.simulation = simulation;
+        this.anchored = false;
+    }
+
+    void reset() {
+        anchored = false;
+    }
+
+    /**
+     * Simulation seconds between two wake-ups. Fast multipliers batch many simulation seconds into one wake-up so
+     * that the thread never wakes more often than once per millisecond.
+     */
+    double getTickLength() {
+        return Math.max(1.0, Math.floor(simulation.getTimeMultiplier().getValue() * MIN_TICK_NANOS / 1e9));
+    }
+
+    void awaitSimulationTime(double simulationTime) {
+        long now = System.nanoTime();
+
+        if (!anchored) {
+            anchor(now, simulationTime, simulation.getTimeMultiplier().getValue());
+            return;
+        }
+
+        while (true) {
+            double currentMultiplier = simulation.getTimeMultiplier().getValue();
+            if (currentMultiplier != multiplier) {
+                // Continue from the point the old speed has reached, so a speed change does not make time jump.
+                anchor(now, Math.min(simulationTime, simulationTimeAt(now)), currentMultiplier);
+            }
+
+            long remaining = deadlineOf(simulationTime) - now;
+            if (remaining <= 0) {
+                if (-remaining > MAX_LAG_NANOS) {
+                    // After a pause or a mode switch the simulation is far behind, start over instead of catching up.
+                    anchor(now, simulationTime, multiplier);
+                }
+                return;
+            }
+
+            if (simulation.isControlRequested()) {
+                return;
+            }
+
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(this, remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+
+            now = System.nanoTime();
+        }
+    }
+
+    private void anchor(long nanos, double simulationTime, double multiplier) {
+        this.anchored = true;
+        this.anchorNanos = nanos;
+        this.anchorSimulationTime = simulationTime;
+        this.multiplier = multiplier;
+    }
+
+    private double simulationTimeAt(long nanos) {
+        return anchorSimulationTime + (nanos - anchorNanos) * multiplier / 1e9;
+    }
+
+    private long deadlineOf(double simulationTime) {
+        return anchorNanos + (long) ((simulationTime - anchorSimulationTime) / multiplier * 1e9);
+    }
+}
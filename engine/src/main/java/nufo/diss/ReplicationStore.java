@@ -0,0 +1,278 @@
+package nufo.diss;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Append-only columnar store of one row of values per replication in a memory-mapped file, so that the results of
+ * every replication stay available for histograms or bootstrap intervals after the run without being held on the
+ * heap. Rows are grouped into chunks of {@link #CHUNK_ROWS}, every chunk holds its columns one after another, so a
+ * scan of one column reads contiguous memory.
+ * <p>
+ * The file starts with a header page holding the column names and the number of rows, which is updated with every
+ * appended row, and can be opened again by another process. Instances are not thread-safe.
+ */
+public class ReplicationStore implements Closeable {
+    public static final int CHUNK_ROWS = 8192;
+    private static final int MAGIC = 0x52455053;
+    private static final int VERSION = 1;
+    private static final int ROW_COUNT_OFFSET = 16;
+    private static final int COLUMNS_OFFSET = 24;
+    private static final int PAGE_SIZE = 4096;
+
+    private final FileChannel channel;
+    private final boolean writable;
+    private final List<String> columnNames;
+    private final int headerSize;
+    private final long chunkSize;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> mappedChunks = new ArrayList<>();
+    private final List<DoubleBuffer> chunks = new ArrayList<>();
+    private int rowCount;
+
+    private ReplicationStore(FileChannel channel, boolean writable, List<String> columnNames, int headerSize, MappedByteBuffer header, int rowCount) {
+        this.channel = channel;
+        this.writable = writable;
+        this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+        this.headerSize = headerSize;
+        this.chunkSize = (long) CHUNK_ROWS * columnNames.size() * Double.BYTES;
+        this.header = header;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Creates an empty store with the given columns, replacing the file if it exists.
+     */
+    public static ReplicationStore create(Path file, List<String> columnNames) throws IOException {
+        if (columnNames.isEmpty()) {
+            throw new IllegalArgumentException("Replication store needs at least one column.");
+        }
+
+        List<byte[]> encodedNames = new ArrayList<>();
+        int namesSize = 0;
+        for (String columnName : columnNames) {
+            byte[] encodedName = columnName.getBytes(StandardCharsets.UTF_8);
+            encodedNames.add(encodedName);
+            namesSize += Integer.BYTES + encodedName.length;
+        }
+        int headerSize = (COLUMNS_OFFSET + namesSize + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, headerSize);
+            header.putInt(12, columnNames.size());
+            header.putLong(ROW_COUNT_OFFSET, 0);
+            header.position(COLUMNS_OFFSET);
+            for (byte[] encodedName : encodedNames) {
+                header.putInt(encodedName.length);
+                header.put(encodedName);
+            }
+            return new ReplicationStore(channel, true, columnNames, headerSize, header, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing store for scanning.
+     */
+    public static ReplicationStore open(Path file) throws IOException {
+        return open(file, false);
+    }
+
+    /**
+     * Opens an existing store to append further rows, e.g. when a run is resumed from a checkpoint.
+     */
+    public static ReplicationStore openForAppending(Path file) throws IOException {
+        return open(file, true);
+    }
+
+    private static ReplicationStore open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            if (channel.size() < COLUMNS_OFFSET) {
+                throw new IOException(file + " is not a replication store.");
+            }
+            ByteBuffer prefix = channel.map(FileChannel.MapMode.READ_ONLY, 0, COLUMNS_OFFSET).order(ByteOrder.LITTLE_ENDIAN);
+            if (prefix.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a replication store.");
+            }
+            if (prefix.getInt(4) != VERSION) {
+                throw new IOException(file + " has unsupported version " + prefix.getInt(4));
+            }
+            int headerSize = prefix.getInt(8);
+            int numberOfColumns = prefix.getInt(12);
+
+            MappedByteBuffer header = channel.map(mode, 0, headerSize);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            List<String> columnNames = new ArrayList<>();
+            header.position(COLUMNS_OFFSET);
+            for (int i = 0; i < numberOfColumns; i++) {
+                byte[] encodedName = new byte[header.getInt()];
+                header.get(encodedName);
+                columnNames.add(new String(encodedName, StandardCharsets.UTF_8));
+            }
+            int rowCount = (int) header.getLong(ROW_COUNT_OFFSET);
+
+            ReplicationStore store = new ReplicationStore(channel, writable, columnNames, headerSize, header, rowCount);
+            long chunks = (rowCount + CHUNK_ROWS - 1) / CHUNK_ROWS;
+            if (channel.size() < headerSize + chunks * store.chunkSize) {
+                throw new IOException(file + " is shorter than its " + rowCount + " rows.");
+            }
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends one row, the values in the order of the columns.
+     */
+    public void append(double[] row) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("Replication store is open for scanning only.");
+        }
+        if (row.length != columnNames.size()) {
+            throw new IllegalArgumentException("Expected " + columnNames.size() + " values but got " + row.length);
+        }
+
+        DoubleBuffer chunk = chunk(rowCount / CHUNK_ROWS);
+        int index = rowCount % CHUNK_ROWS;
+        for (int column = 0; column < row.length; column++) {
+            chunk.put(column * CHUNK_ROWS + index, row[column]);
+        }
+        rowCount++;
+        header.putLong(ROW_COUNT_OFFSET, rowCount);
+    }
+
+    /**
+     * Drops the rows after the first given number of them.
+     */
+    public void truncate(int rowCount) {
+        if (!writable) {
+            throw new IllegalStateException("Replication store is open for scanning only.");
+        }
+        if (rowCount < 0 || rowCount > this.rowCount) {
+            throw new IllegalArgumentException("Can not truncate " + this.rowCount + " rows to " + rowCount);
+        }
+        this.rowCount = rowCount;
+        header.putLong(ROW_COUNT_OFFSET, rowCount);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public int getColumnIndex(String columnName) {
+        int index = columnNames.indexOf(columnName);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column " + columnName);
+        }
+        return index;
+    }
+
+    public double getValue(int row, int column) throws IOException {
+        checkRange(row, 1, column);
+        return chunk(row / CHUNK_ROWS).get(column * CHUNK_ROWS + row % CHUNK_ROWS);
+    }
+
+    /**
+     * Passes the values of the column to the consumer in the order of the rows.
+     */
+    public void scan(int column, DoubleConsumer consumer) throws IOException {
+        checkRange(0, rowCount, column);
+        for (int row = 0; row < rowCount; row += CHUNK_ROWS) {
+            DoubleBuffer chunk = chunk(row / CHUNK_ROWS);
+            int from = column * CHUNK_ROWS;
+            int to = from + Math.min(CHUNK_ROWS, rowCount - row);
+            for (int i = from; i < to; i++) {
+                consumer.accept(chunk.get(i));
+            }
+        }
+    }
+
+    /**
+     * Copies the values of the column from the given row on into the target array.
+     */
+    public void read(int column, int fromRow, double[] target, int offset, int length) throws IOException {
+        checkRange(fromRow, length, column);
+        while (length > 0) {
+            int index = fromRow % CHUNK_ROWS;
+            int count = Math.min(length, CHUNK_ROWS - index);
+            chunk(fromRow / CHUNK_ROWS).get(column * CHUNK_ROWS + index, target, offset, count);
+            fromRow += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Writes the mapped rows and the header to the file.
+     */
+    public void flush() {
+        if (!writable) {
+            return;
+        }
+        for (MappedByteBuffer mappedChunk : mappedChunks) {
+            mappedChunk.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        mappedChunks.clear();
+        chunks.clear();
+        channel.close();
+    }
+
+    private void checkRange(int fromRow, int length, int column) {
+        if (column < 0 || column >= columnNames.size()) {
+            throw new IndexOutOfBoundsException("Column " + column + " out of " + columnNames.size());
+        }
+        if (fromRow < 0 || length < 0 || fromRow + length > rowCount) {
+            throw new IndexOutOfBoundsException("Rows " + fromRow + " to " + (fromRow + length) + " out of " + rowCount);
+        }
+    }
+
+    // Chunks are mapped on first use, mapping a chunk of a writable store extends the file by it.
+    private DoubleBuffer chunk(int index) throws IOException {
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        while (chunks.size() <= index) {
+            MappedByteBuffer mappedChunk = channel.map(mode, headerSize + chunks.size() * chunkSize, chunkSize);
+            mappedChunks.add(mappedChunk);
+            chunks.add(mappedChunk.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer());
+        }
+        return chunks.get(index);
+    }
+}
@@ -0,0 +1,612 @@
+package nufo.diss;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public abstract class SimulationCore {
+    public static final int FRAMES_PER_SECOND = 30;
+
+    protected volatile State state;
+    private volatile boolean controlRequested;
+    private volatile Thread runner;
+    protected int numberOfReplications;
+    protected int doneReplications;
+    protected int currentReplication;
+    protected final Object lock = new Object();
+    private int parallelism;
+    private List<SimulationCore> workers;
+    // The simulation that runs this one as a worker of a parallel run, null otherwise.
+    private SimulationCore coordinator;
+    // Only one worker publishes its events through the coordinator, so that a single replication is animated.
+    private boolean publishesEvents;
+    private final FrameRateLimiter eventFrames;
+    private final FrameRateLimiter experimentFrames;
+    private final SimulationPublisher<State> statePublisher;
+    private final SimulationPublisher<Object> replicationPublisher;
+    private final SimulationPublisher<Object> eventPublisher;
+    private List<ConsumerSubscriber<?>> consumerSubscribers;
+    private ExecutorService consumerExecutor;
+    private Path checkpointFile;
+    private long checkpointIntervalNanos;
+    private long lastCheckpointNanos;
+    private ExecutorService checkpointWriter;
+    private Checkpoint checkpointToRestore;
+    private StoppingPolicy stoppingPolicy;
+    private volatile StoppingPolicy.StopReason stopReason;
+    private long runStartNanos;
+
+    SimulationCore(int numberOfReplications) {
+        this.state = State.CREATED;
+        this.numberOfReplications = numberOfReplications;
+        this.doneReplications = 0;
+        this.parallelism = 1;
+        this.workers = List.of();
+        this.eventFrames = new FrameRateLimiter(FRAMES_PER_SECOND);
+        this.experimentFrames = new FrameRateLimiter(FRAMES_PER_SECOND);
+        this.statePublisher = new SimulationPublisher<>();
+        this.replicationPublisher = new SimulationPublisher<>();
+        this.eventPublisher = new SimulationPublisher<>();
+        this.consumerSubscribers = List.of();
+        this.stoppingPolicy = StoppingPolicy.fixedReplications();
+    }
+
+    public void run() {
+        if (state == State.RUNNING) {
+            throw new IllegalStateException("Simulation already running");
+        }
+
+        runner = Thread.currentThread();
+        runStartNanos = System.nanoTime();
+        stopReason = null;
+
+        beforeSimulation();
+
+        if (checkpointToRestore != null) {
+            doneReplications = checkpointToRestore.doneReplications();
+            restoreCheckpoint(checkpointToRestore.state());
+            checkpointToRestore = null;
+        }
+
+        if (checkpointFile != null) {
+            checkpointWriter = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "checkpoint-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lastCheckpointNanos = System.nanoTime();
+        }
+
+        setState(State.RUNNING);
+
+        if (parallelism > 1 && numberOfReplications > 1) {
+            runParallel();
+        } else {
+            runSequential();
+        }
+
+        if (stopReason == null) {
+            stopReason = state == State.STOPPED ? StoppingPolicy.StopReason.STOPPED : StoppingPolicy.StopReason.REPLICATIONS;
+        }
+
+        if (checkpointWriter != null) {
+            writeCheckpoint();
+            checkpointWriter.shutdown();
+            try {
+                checkpointWriter.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            checkpointWriter = null;
+        }
+
+        flushFrames();
+
+        afterSimulation();
+
+        setState(State.FINISHED);
+
+        statePublisher.close();
+        replicationPublisher.close();
+        eventPublisher.close();
+
+        if (consumerExecutor != null) {
+            consumerExecutor.shutdown();
+            try {
+                consumerExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runSequential() {
+        for (int i = doneReplications + 1; i <= numberOfReplications; i++) {
+            if (controlRequested && !handleControlRequest()) {
+                break;
+            }
+
+            currentReplication = i;
+
+            beforeExperiment();
+
+            this.experiment();
+
+            if (state != State.STOPPED) {
+                doneReplications++;
+                afterExperiment();
+                notifyStateChange(StateChangeType.EXPERIMENT);
+                checkpointIfDue();
+                if (isStoppingPolicySatisfied()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void runParallel() {
+        AtomicInteger nextReplication = new AtomicInteger(doneReplications + 1);
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        synchronized (lock) {
+            List<SimulationCore> createdWorkers = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                SimulationCore worker = createWorker();
+                worker.state = state;
+                worker.controlRequested = true;
+                worker.coordinator = this;
+                worker.publishesEvents = i == 0;
+                createdWorkers.add(worker);
+                tasks.add(() -> {
+                    worker.runWorker(this, nextReplication);
+                    return null;
+                });
+            }
+            workers = createdWorkers;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopWorkers();
+        } catch (ExecutionException e) {
+            stopWorkers();
+            throw new RuntimeException("Replication worker failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            synchronized (lock) {
+                workers = List.of();
+            }
+        }
+    }
+
+    private void runWorker(SimulationCore master, AtomicInteger nextReplication) {
+        runner = Thread.currentThread();
+
+        beforeSimulation();
+
+        for (int i = nextReplication.getAndIncrement(); i <= master.numberOfReplications && master.stopReason == null; i = nextReplication.getAndIncrement()) {
+            if (controlRequested && !handleControlRequest()) {
+                break;
+            }
+
+            currentReplication = i;
+
+            beforeExperiment();
+
+            this.experiment();
+
+            if (state != State.STOPPED) {
+                synchronized (master.lock) {
+                    master.doneReplications++;
+                    master.mergeExperiment(this);
+                    master.notifyStateChange(StateChangeType.EXPERIMENT);
+                    master.checkpointIfDue();
+                    master.isStoppingPolicySatisfied();
+                }
+            }
+        }
+
+        flushFrames();
+
+        afterSimulation();
+    }
+
+    public void setStoppingPolicy(StoppingPolicy stoppingPolicy) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Stopping policy can not be changed while simulation is running.");
+        }
+        this.stoppingPolicy = stoppingPolicy;
+    }
+
+    /**
+     * Why the last run ended, null while it is running.
+     */
+    public StoppingPolicy.StopReason getStopReason() {
+        return state == State.RUNNING || state == State.PAUSED ? null : stopReason;
+    }
+
+    // Called after a replication was counted, in parallel mode under the lock that guards the results.
+    private boolean isStoppingPolicySatisfied() {
+        if (stopReason == null) {
+            stopReason = stoppingPolicy.check(getStoppingIndicators(), System.nanoTime() - runStartNanos);
+        }
+        return stopReason != null;
+    }
+
+    /**
+     * Periodically saves the completed replications and the accumulated results to the file. The checkpoint is
+     * serialized on the simulation thread after a replication and written to disk by a background thread, the file
+     * is replaced atomically so that it always holds a complete checkpoint.
+     * <p>
+     * The statistics classes in a checkpoint declare their serialVersionUID, which has to be changed together with
+     * their fields so that a checkpoint of another layout is rejected instead of read with missing values.
+     */
+    public void setCheckpointing(Path checkpointFile, Duration interval) {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Checkpointing can not be changed while simulation is running.");
+        }
+        this.checkpointFile = checkpointFile;
+        this.checkpointIntervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Loads a checkpoint, the next run continues after the replications it contains.
+     */
+    public void resumeFrom(Path checkpointFile) throws IOException {
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Simulation can not be resumed while it is running.");
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            checkpointToRestore = (Checkpoint) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("File " + checkpointFile + " is not a simulation checkpoint.", e);
+        }
+    }
+
+    // Called after a replication was counted, in parallel mode under the lock that guards the results.
+    private void checkpointIfDue() {
+        if (checkpointWriter != null && System.nanoTime() - lastCheckpointNanos >= checkpointIntervalNanos) {
+            writeCheckpoint();
+        }
+    }
+
+    private void writeCheckpoint() {
+        byte[] bytes;
+        try (ByteArrayOutputStream buffer = new ByteArrayOutputStream(); ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(new Checkpoint(getCheckpointedReplications(), createCheckpoint()));
+            out.flush();
+            bytes = buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastCheckpointNanos = System.nanoTime();
+
+        Path file = checkpointFile;
+        checkpointWriter.execute(() -> {
+            Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                Files.write(temporaryFile, bytes);
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("Error writing checkpoint to file " + file);
+                e.printStackTrace();
+            }
+        });
+    }
+
+    public void stop() {
+        if (state == State.STOPPED) {
+            throw new IllegalStateException("Simulation already stopped.");
+        }
+        synchronized (lock) {
+            setState(State.STOPPED);
+            stopWorkers();
+        }
+    }
+
+    public void pause() {
+        if (state == State.PAUSED) {
+            throw new IllegalStateException("Simulation already paused.");
+        }
+        synchronized (lock) {
+            setState(State.PAUSED);
+            for (SimulationCore worker : workers) {
+                worker.pause();
+            }
+        }
+    }
+
+    public void resume() {
+        synchronized (lock) {
+            setState(State.RUNNING);
+            for (SimulationCore worker : workers) {
+                worker.resume();
+            }
+        }
+    }
+
+    /**
+     * Control plane of the simulation loops. Every state change raises a single volatile flag that the loops poll
+     * once per event or replication; only when it is raised they call this method, which parks the simulation
+     * thread while the simulation is paused. Returns false when the loop has to stop.
+     */
+    protected boolean handleControlRequest() {
+        controlRequested = false;
+
+        if (state == State.PAUSED) {
+            flushFrames();
+            // Replications merged before this worker parks may have left the coordinator a skipped snapshot.
+            if (coordinator != null) {
+                coordinator.flushExperimentFrame();
+            }
+        }
+
+        while (state == State.PAUSED) {
+            LockSupport.park(this);
+            if (Thread.currentThread().isInterrupted()) {
+                controlRequested = true;
+                return false;
+            }
+        }
+
+        if (state == State.STOPPED) {
+            // Leave the flag raised so that every enclosing loop stops as well.
+            controlRequested = true;
+            return false;
+        }
+
+        return true;
+    }
+
+    protected void requestControl() {
+        controlRequested = true;
+        wakeUp();
+    }
+
+    protected void wakeUp() {
+        LockSupport.unpark(runner);
+    }
+
+    protected boolean isControlRequested() {
+        return controlRequested;
+    }
+
+    private void stopWorkers() {
+        synchronized (lock) {
+            for (SimulationCore worker : workers) {
+                if (worker.state != State.STOPPED) {
+                    worker.stop();
+                }
+            }
+        }
+    }
+
+    /**
+     * Every state change is published, EVENT and EXPERIMENT snapshots are sampled at most {@link #FRAMES_PER_SECOND}
+     * times per second each. Snapshots skipped in between or nobody is subscribed to are not built, and the latest
+     * skipped snapshot is published when the simulation pauses or ends, so the final results always arrive.
+     */
+    protected void notifyStateChange(StateChangeType type) {
+        switch (type) {
+            case EVENT -> {
+                SimulationCore target = publishesEvents ? coordinator : this;
+                if (target.eventPublisher.hasSubscribers() && target.eventFrames.tryAcquireFrame()) {
+                    target.eventPublisher.submit(createSnapshot(type));
+                }
+            }
+            case EXPERIMENT -> {
+                if (replicationPublisher.hasSubscribers() && experimentFrames.tryAcquireFrame()) {
+                    replicationPublisher.submit(createSnapshot(type));
+                }
+            }
+            case STATE -> statePublisher.submit(state);
+        }
+    }
+
+    private void flushFrames() {
+        SimulationCore target = publishesEvents ? coordinator : this;
+        if (target.eventFrames.takePending() && target.eventPublisher.hasSubscribers()) {
+            target.eventPublisher.submit(createSnapshot(StateChangeType.EVENT));
+        }
+        flushExperimentFrame();
+    }
+
+    // In parallel mode the workers merge their replications under the lock, so the snapshot is built under it too.
+    private void flushExperimentFrame() {
+        synchronized (lock) {
+            if (experimentFrames.takePending() && replicationPublisher.hasSubscribers()) {
+                replicationPublisher.submit(createSnapshot(StateChangeType.EXPERIMENT));
+            }
+        }
+    }
+
+    public SimulationPublisher<State> getStatePublisher() {
+        return statePublisher;
+    }
+
+    public SimulationPublisher<Object> getReplicationPublisher() {
+        return replicationPublisher;
+    }
+
+    public SimulationPublisher<Object> getEventPublisher() {
+        return eventPublisher;
+    }
+
+    /**
+     * Subscribes the consumer to all streams. It is called on a thread of its own, one item after another, so a slow
+     * consumer never holds up the simulation; items wait for it instead. {@link #run()} returns once the consumer has
+     * received every item. Replaces the previously set consumer, null only unsubscribes it.
+     */
+    public void setConsumer(Consumer<ConsumerData> consumer) {
+        for (ConsumerSubscriber<?> subscriber : consumerSubscribers) {
+            subscriber.cancel();
+        }
+        consumerSubscribers = List.of();
+
+        if (consumer != null) {
+            // A replaced consumer may still be signalled, so the thread is shared by every consumer of the run.
+            if (consumerExecutor == null || consumerExecutor.isShutdown()) {
+                consumerExecutor = Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "simulation-consumer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            ConsumerSubscriber<State> stateSubscriber = new ConsumerSubscriber<>(StateChangeType.STATE, consumer);
+            ConsumerSubscriber<Object> replicationSubscriber = new ConsumerSubscriber<>(StateChangeType.EXPERIMENT, consumer);
+            ConsumerSubscriber<Object> eventSubscriber = new ConsumerSubscriber<>(StateChangeType.EVENT, consumer);
+            statePublisher.subscribe(stateSubscriber, SimulationPublisher.OverflowPolicy.BUFFER, consumerExecutor);
+            replicationPublisher.subscribe(replicationSubscriber, SimulationPublisher.OverflowPolicy.BUFFER, consumerExecutor);
+            eventPublisher.subscribe(eventSubscriber, SimulationPublisher.OverflowPolicy.BUFFER, consumerExecutor);
+            consumerSubscribers = List.of(stateSubscriber, replicationSubscriber, eventSubscriber);
+        }
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1 but is " + parallelism);
+        }
+        if (state == State.RUNNING || state == State.PAUSED) {
+            throw new IllegalStateException("Parallelism can not be changed while simulation is running.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Workers of the running parallel run, empty otherwise. Settings that can change while the simulation runs have
+     * to be forwarded to them under {@link #lock}.
+     */
+    protected List<SimulationCore> getWorkers() {
+        return workers;
+    }
+
+    private void setState(State state) {
+        this.state = state;
+        requestControl();
+        notifyStateChange(StateChangeType.STATE);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getDoneReplications() {
+        return doneReplications;
+    }
+
+    protected abstract Object createSnapshot(StateChangeType type);
+
+    public abstract void experiment();
+
+    protected abstract void beforeSimulation();
+    protected abstract void afterSimulation();
+    protected abstract void beforeExperiment();
+    protected abstract void afterExperiment();
+
+    protected abstract SimulationCore createWorker();
+    protected abstract void mergeExperiment(SimulationCore worker);
+
+    protected abstract List<Statistics> getStoppingIndicators();
+
+    protected abstract Serializable createCheckpoint();
+    protected abstract void restoreCheckpoint(Serializable checkpoint);
+
+    /**
+     * Number of replications the state of a checkpoint covers, a resumed run continues after them. Replications done
+     * but not yet part of the state are run again.
+     */
+    protected int getCheckpointedReplications() {
+        return doneReplications;
+    }
+
+    public enum State {
+        CREATED,
+        RUNNING,
+        STOPPED,
+        PAUSED,
+        FINISHED
+    }
+
+    public enum StateChangeType {
+        EXPERIMENT,
+        EVENT,
+        STATE
+    }
+
+    public record ConsumerData(StateChangeType stateChangeType, Object data) {}
+
+    private record Checkpoint(int doneReplications, Serializable state) implements Serializable {}
+
+    private static class ConsumerSubscriber<T> implements Flow.Subscriber<T> {
+        private final StateChangeType type;
+        private final Consumer<ConsumerData> consumer;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        ConsumerSubscriber(StateChangeType type, Consumer<ConsumerData> consumer) {
+            this.type = type;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (!cancelled) {
+                consumer.accept(new ConsumerData(type, item));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) { }
+
+        @Override
+        public void onComplete() { }
+
+        // The subscriber is signalled on the consumer thread, it may not be subscribed yet when it is cancelled.
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package nufo.diss;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publisher of one output stream of a simulation. Submitting never blocks the simulation thread: every subscriber has
+ * its own demand, its own executor on which it is signalled and its own {@link OverflowPolicy} that decides what
+ * happens to items the subscriber is not ready for.
+ */
+public class SimulationPublisher<T> implements Flow.Publisher<T> {
+    private final List<PolicySubscription<T>> subscriptions;
+    private volatile boolean closed;
+
+    SimulationPublisher() {
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.closed = false;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        subscribe(subscriber, OverflowPolicy.BUFFER, ForkJoinPool.commonPool());
+    }
+
+    public void subscribe(Flow.Subscriber<? super T> subscriber, OverflowPolicy policy, Executor executor) {
+        PolicySubscription<T> subscription = new PolicySubscription<>(this, subscriber, policy, executor);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+        subscription.schedule();
+    }
+
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    void submit(T item) {
+        if (closed) {
+            return;
+        }
+        for (PolicySubscription<T> subscription : subscriptions) {
+            subscription.offer(item);
+        }
+    }
+
+    void close() {
+        closed = true;
+        for (PolicySubscription<T> subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    public enum OverflowPolicy {
+        /** Keeps up to {@link Flow#defaultBufferSize()} items and drops new ones while the buffer is full. */
+        DROP,
+        /** Keeps only the newest item, older undelivered ones are replaced. */
+        LATEST,
+        /** Keeps every item until it is requested. */
+        BUFFER
+    }
+
+    private static class PolicySubscription<T> implements Flow.Subscription {
+        private final SimulationPublisher<T> publisher;
+        private final Flow.Subscriber<? super T> subscriber;
+        private final OverflowPolicy policy;
+        private final Executor executor;
+        private final Queue<T> queue;
+        private final AtomicInteger queued;
+        private final AtomicReference<T> latest;
+        private final AtomicLong demand;
+        private final AtomicInteger work;
+        private boolean subscribed;
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+
+        PolicySubscription(SimulationPublisher<T> publisher, Flow.Subscriber<? super T> subscriber, OverflowPolicy policy, Executor executor) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.executor = executor;
+            this.queue = new ConcurrentLinkedQueue<>();
+            this.queued = new AtomicInteger();
+            this.latest = new AtomicReference<>();
+            this.demand = new AtomicLong();
+            this.work = new AtomicInteger();
+            this.subscribed = false;
+            this.completed = false;
+            this.cancelled = false;
+        }
+
+        void offer(T item) {
+            switch (policy) {
+                case DROP -> {
+                    if (queued.incrementAndGet() > Flow.defaultBufferSize()) {
+                        queued.decrementAndGet();
+                        return;
+                    }
+                    queue.offer(item);
+                }
+                case LATEST -> latest.set(item);
+                case BUFFER -> queue.offer(item);
+            }
+            schedule();
+        }
+
+        void complete() {
+            completed = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                executor.execute(() -> subscriber.onError(new IllegalArgumentException("Requested " + n + " items, demand must be positive.")));
+                return;
+            }
+            demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            publisher.subscriptions.remove(this);
+        }
+
+        void schedule() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        // Runs on the executor of the subscriber, the work counter makes sure only one drain runs at a time.
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!subscribed) {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+
+                while (!cancelled && demand.get() > 0) {
+                    T item = poll();
+                    if (item == null) {
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(item);
+                    } catch (RuntimeException e) {
+                        cancel();
+                        subscriber.onError(e);
+                    }
+                }
+
+                if (!cancelled && completed && isEmpty()) {
+                    cancel();
+                    subscriber.onComplete();
+                }
+
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private T poll() {
+            if (policy == OverflowPolicy.LATEST) {
+                return latest.getAndSet(null);
+            }
+            T item = queue.poll();
+            if (item != null && policy == OverflowPolicy.DROP) {
+                queued.decrementAndGet();
+            }
+            return item;
+        }
+
+        private boolean isEmpty() {
+            return policy == OverflowPolicy.LATEST ? latest.get() == null : queue.isEmpty();
+        }
+    }
+}
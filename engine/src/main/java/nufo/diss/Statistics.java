@@ -0,0 +1,184 @@
+package nufo.diss;
+
+import java.io.Serializable;
+
+/**
+ * Running mean and variance after Welford, which does not lose precision to cancellation the way a sum of squares
+ * does. Two instances can be combined with {@link #merge(Statistics)} (Chan et al.), so partial results of threads
+ * or runs reduce to the same values as if all observations were added to one instance.
+ */
+public class Statistics implements Serializable {
+    private static final long serialVersionUID = -4298244760369012911L;
+    private static final double CONFIDENCE_LEVEL = 0.95;
+
+    private int count = 0;
+    private double mean = 0.0;
+    private double sumOfSquaredDeviations = 0.0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void addValue(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumOfSquaredDeviations += delta * (value - mean);
+
+        if (value < min) {
+            min = value;
+        }
+
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public void merge(Statistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            sumOfSquaredDeviations = other.sumOfSquaredDeviations;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+
+        int mergedCount = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / mergedCount;
+        sumOfSquaredDeviations += other.sumOfSquaredDeviations + delta * delta * ((double) count * other.count / mergedCount);
+        count = mergedCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return mean * count;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    public double getStandardDeviation() {
+        return count > 1 ? Math.sqrt(sumOfSquaredDeviations / count) : Double.NaN;
+    }
+
+    public double getSampleStandardDeviation() {
+        return count > 1 ? Math.sqrt(sumOfSquaredDeviations / (count - 1)) : Double.NaN;
+    }
+
+    public double getConfidenceIntervalLowerBound() {
+        return getMean() - getConfidenceIntervalHalfWidth();
+    }
+
+    public double getConfidenceIntervalUpperBound() {
+        return getMean() + getConfidenceIntervalHalfWidth();
+    }
+
+    /**
+     * Half-width of the 95% confidence interval of the mean from the Student t distribution, so that it is valid
+     * from two values on.
+     */
+    public double getConfidenceIntervalHalfWidth() {
+        return count > 1 ? studentTQuantile(1 - CONFIDENCE_LEVEL, count - 1) * getSampleStandardDeviation() / Math.sqrt(count) : Double.NaN;
+    }
+
+    public void reset() {
+        count = 0;
+        mean = 0.0;
+        sumOfSquaredDeviations = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public Data toData() {
+        return new Data(
+                getMean(),
+                getConfidenceIntervalLowerBound(),
+                getConfidenceIntervalUpperBound()
+        );
+    }
+
+    /**
+     * Quantile of the Student t distribution exceeded in absolute value with the given two-tailed probability,
+     * after G. W. Hill, Algorithm 396: Student's t-quantiles (1970).
+     */
+    static double studentTQuantile(double twoTailedProbability, int degreesOfFreedom) {
+        double p = twoTailedProbability;
+        int n = degreesOfFreedom;
+
+        if (n == 1) {
+            return 1 / Math.tan(p * Math.PI / 2);
+        }
+        if (n == 2) {
+            return Math.sqrt(2 / (p * (2 - p)) - 2);
+        }
+
+        double a = 1 / (n - 0.5);
+        double b = 48 / (a * a);
+        double c = ((20700 * a / b - 98) * a - 16) * a + 96.36;
+        double d = ((94.5 / (b + c) - 3) / b + 1) * Math.sqrt(a * Math.PI / 2) * n;
+        double y = Math.pow(d * p, 2.0 / n);
+
+        if (y > 0.05 + a) {
+            // Asymptotic expansion around the normal quantile.
+            double x = normalQuantile(p / 2);
+            y = x * x;
+            if (n < 5) {
+                c += 0.3 * (n - 4.5) * (x + 0.6);
+            }
+            c = (((0.05 * d * x - 5) * x - 7) * x - 2) * x + b + c;
+            y = (((((0.4 * y + 6.3) * y + 36) * y + 94.5) / c - y - 3) / b + 1) * x;
+            y = Math.expm1(a * y * y);
+        } else {
+            y = ((1 / (((n + 6) / (n * y) - 0.089 * d - 0.822) * (n + 2) * 3) + 0.5 / (n + 4)) * y - 1) * (n + 1) / (n + 2) + 1 / y;
+        }
+
+        return Math.sqrt(n * y);
+    }
+
+    /**
+     * Quantile of the standard normal distribution, rational approximation of P. J. Acklam with a relative error
+     * below 1.15e-9.
+     */
+    static double normalQuantile(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+        final double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    public record Data(
+            double mean,
+            double confidenceIntervalLowerBound,
+            double confidenceIntervalUpperBound
+    ) {}
+}
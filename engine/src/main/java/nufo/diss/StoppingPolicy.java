@@ -0,0 +1,82 @@
+package nufo.diss;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Decides after every replication whether the simulation has run long enough. The number of replications of the
+ * simulation is always the upper bound; the policy can stop earlier once the confidence intervals of the key
+ * performance indicators are tight enough or once the wall-clock budget is used up.
+ */
+public class StoppingPolicy {
+    private static final int MINIMUM_SAMPLE_SIZE = 30;
+
+    private final double relativeHalfWidth;
+    private final long timeBudgetNanos;
+
+    private StoppingPolicy(double relativeHalfWidth, long timeBudgetNanos) {
+        this.relativeHalfWidth = relativeHalfWidth;
+        this.timeBudgetNanos = timeBudgetNanos;
+    }
+
+    public static StoppingPolicy fixedReplications() {
+        return new StoppingPolicy(Double.NaN, Long.MAX_VALUE);
+    }
+
+    /**
+     * Stops when the confidence interval half-width of every indicator is at most the given fraction of its mean.
+     */
+    public static StoppingPolicy relativePrecision(double relativeHalfWidth) {
+        return new StoppingPolicy(validateRelativeHalfWidth(relativeHalfWidth), Long.MAX_VALUE);
+    }
+
+    public static StoppingPolicy timeBudget(Duration timeBudget) {
+        return new StoppingPolicy(Double.NaN, validateTimeBudget(timeBudget));
+    }
+
+    /**
+     * Stops on whichever comes first, the required precision or the end of the time budget.
+     */
+    public static StoppingPolicy relativePrecisionOrTimeBudget(double relativeHalfWidth, Duration timeBudget) {
+        return new StoppingPolicy(validateRelativeHalfWidth(relativeHalfWidth), validateTimeBudget(timeBudget));
+    }
+
+    StopReason check(List<Statistics> indicators, long elapsedNanos) {
+        if (elapsedNanos >= timeBudgetNanos) {
+            return StopReason.TIME_BUDGET;
+        }
+
+        if (!Double.isNaN(relativeHalfWidth) && !indicators.isEmpty()) {
+            for (Statistics indicator : indicators) {
+                // A few replications can agree by chance, the interval is only trusted from a reasonable sample on.
+                if (indicator.getCount() < MINIMUM_SAMPLE_SIZE || !(indicator.getConfidenceIntervalHalfWidth() <= relativeHalfWidth * Math.abs(indicator.getMean()))) {
+                    return null;
+                }
+            }
+            return StopReason.PRECISION;
+        }
+
+        return null;
+    }
+
+    private static double validateRelativeHalfWidth(double relativeHalfWidth) {
+        if (!(relativeHalfWidth > 0)) {
+            throw new IllegalArgumentException("Relative half-width must be positive but is " + relativeHalfWidth);
+        }
+        return relativeHalfWidth;
+    }
+
+    private static long validateTimeBudget(Duration timeBudget) {
+        if (timeBudget.isNegative() || timeBudget.isZero()) {
+            throw new IllegalArgumentException("Time budget must be positive but is " + timeBudget);
+        }
+        return timeBudget.toNanos();
+    }
+
+    public enum StopReason {
+        REPLICATIONS,
+        PRECISION,
+        TIME_BUDGET,
+        STOPPED
+    }
+}
@@ -0,0 +1,17 @@
+package nufo.diss;
+
+public class SystemEvent extends Event {
+    public SystemEvent(EventSimulation eventSimulation, double executionTime) {
+        super(eventSimulation, executionTime);
+    }
+
+    @Override
+    public void execute() {
+        simulation.systemEventScheduled = false;
+
+        if (simulation.getExecutionMode() == EventSimulation.TimeMode.REAL_TIME) {
+            simulation.awaitRealTime(executionTime);
+            simulation.scheduleSystemEvent(executionTime + simulation.getRealTimeTickLength());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package nufo.diss;
+
+import java.io.Serializable;
+
+/**
+ * Time average of a piecewise constant quantity such as a queue length. Every change costs O(1): the previous value
+ * is weighted by how long it lasted, so nothing has to be scanned when the average is read.
+ */
+public class TimeWeightedStatistics implements Serializable {
+    private static final long serialVersionUID = 5294516695925570440L;
+
+    // All zero at first, as after reset(0.0, 0.0).
+    private double startTime;
+    private double lastChangeTime;
+    private double value;
+    private double weightedSum;
+    private double min;
+    private double max;
+
+    public void reset(double time, double value) {
+        this.startTime = time;
+        this.lastChangeTime = time;
+        this.value = value;
+        this.weightedSum = 0.0;
+        this.min = value;
+        this.max = value;
+    }
+
+    public void setValue(double time, double value) {
+        if (time < lastChangeTime) {
+            throw new IllegalArgumentException("Time must not decrease, last change was at " + lastChangeTime + " but got " + time);
+        }
+
+        weightedSum += this.value * (time - lastChangeTime);
+        lastChangeTime = time;
+        this.value = value;
+
+        if (value < min) {
+            min = value;
+        }
+
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Drops everything before the given time. The history is not kept, so the caller has to pass the integral up to
+     * that time as it was read earlier. Min and max still include the dropped part.
+     */
+    public void discardBefore(double time, double integralUpToTime) {
+        startTime = time;
+        weightedSum -= integralUpToTime;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Integral of the value from the last reset or discard up to the given time.
+     */
+    public double getIntegral(double time) {
+        return weightedSum + value * (time - lastChangeTime);
+    }
+
+    /**
+     * Average from the last reset or discard up to the given time, NaN if no time has passed.
+     */
+    public double getMean(double time) {
+        double duration = time - startTime;
+        return duration > 0 ? getIntegral(time) / duration : Double.NaN;
+    }
+}
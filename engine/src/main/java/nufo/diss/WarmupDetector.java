@@ -0,0 +1,105 @@
+package nufo.diss;
+
+import java.util.Arrays;
+
+/**
+ * MSER-5 detection of the initial transient in the observations of one replication (White, Cobb and Spratt). The
+ * observations are grouped into batches of {@link #BATCH_SIZE} and the truncation point is the number of leading
+ * batches, at most half of them, whose removal minimizes the squared standard error of the remaining batch means.
+ * <p>
+ * Observations are kept in arrays that are reused after {@link #reset()}, so a replication only allocates while it
+ * produces more observations than any replication before.
+ */
+public class WarmupDetector {
+    public static final int BATCH_SIZE = 5;
+
+    private double[] times = new double[1024];
+    private double[] values = new double[1024];
+    private int count = 0;
+    private int truncationPoint = -1;
+
+    /**
+     * Returns true when the observation completes a batch, the caller can then record anything it has to truncate
+     * at the same point.
+     */
+    public boolean addObservation(double time, double value) {
+        if (count == values.length) {
+            times = Arrays.copyOf(times, times.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        times[count] = time;
+        values[count] = value;
+        count++;
+        truncationPoint = -1;
+        return count % BATCH_SIZE == 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getTime(int index) {
+        return times[index];
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Number of leading observations to discard, always a whole number of batches.
+     */
+    public int getTruncationPoint() {
+        if (truncationPoint < 0) {
+            truncationPoint = BATCH_SIZE * findTruncatedBatches();
+        }
+        return truncationPoint;
+    }
+
+    /**
+     * Time of the last discarded observation, zero if nothing is discarded.
+     */
+    public double getTruncationTime() {
+        int point = getTruncationPoint();
+        return point > 0 ? times[point - 1] : 0.0;
+    }
+
+    public void reset() {
+        count = 0;
+        truncationPoint = -1;
+    }
+
+    private int findTruncatedBatches() {
+        int batches = count / BATCH_SIZE;
+        if (batches < 2) {
+            return 0;
+        }
+
+        // Welford over the batch means from the last one backwards, so every suffix is evaluated in one pass.
+        int best = 0;
+        double bestStatistic = Double.POSITIVE_INFINITY;
+        double mean = 0.0;
+        double sumOfSquaredDeviations = 0.0;
+        for (int batch = batches - 1; batch >= 0; batch--) {
+            double batchMean = 0.0;
+            for (int i = batch * BATCH_SIZE; i < (batch + 1) * BATCH_SIZE; i++) {
+                batchMean += values[i];
+            }
+            batchMean /= BATCH_SIZE;
+
+            int remaining = batches - batch;
+            double delta = batchMean - mean;
+            mean += delta / remaining;
+            sumOfSquaredDeviations += delta * (batchMean - mean);
+
+            if (batch <= batches / 2) {
+                double statistic = sumOfSquaredDeviations / ((double) remaining * remaining);
+                if (statistic <= bestStatistic) {
+                    bestStatistic = statistic;
+                    best = batch;
+                }
+            }
+        }
+        return best;
+    }
+}
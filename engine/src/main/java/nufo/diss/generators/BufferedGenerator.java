@@ -0,0 +1,88 @@
+package nufo.diss.generators;
+
+/**
+ * Generator that draws the values of another generator in blocks with {@link Generator#fill}, so that a model reads
+ * them from an array instead of running the transformation of every value between its events. The values and their
+ * order are the same as those of the wrapped generator, reseeding or switching to antithetic values drops the rest
+ * of the block. Integer values are buffered in a block of their own, so a generator read with both
+ * {@link #nextInt()} and {@link #nextDouble()} draws each block ahead of the other.
+ */
+public class BufferedGenerator extends Generator {
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+
+    private final Generator generator;
+    private final double[] block;
+    private int position;
+    private int[] intBlock;
+    private int intPosition;
+
+    public BufferedGenerator(Generator generator) {
+        this(generator, DEFAULT_BLOCK_SIZE);
+    }
+
+    public BufferedGenerator(Generator generator, int blockSize) {
+        super(generator.mode);
+
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive but is " + blockSize);
+        }
+        this.generator = generator;
+        this.block = new double[blockSize];
+        this.position = blockSize;
+    }
+
+    public Generator getGenerator() {
+        return generator;
+    }
+
+    @Override
+    public int nextInt() {
+        if (intBlock == null) {
+            intBlock = new int[block.length];
+            intPosition = block.length;
+        }
+        if (intPosition == intBlock.length) {
+            generator.fill(intBlock, 0, intBlock.length);
+            intPosition = 0;
+        }
+        return (int) sample(intBlock[intPosition++]);
+    }
+
+    @Override
+    public double nextDouble() {
+        if (position == block.length) {
+            generator.fill(block);
+            position = 0;
+        }
+        return sample(block[position++]);
+    }
+
+    @Override
+    public double getMean() {
+        return generator.getMean();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        generator.setSeed(seed);
+        dropBlocks();
+    }
+
+    @Override
+    public void setAntithetic(boolean antithetic) {
+        super.setAntithetic(antithetic);
+        generator.setAntithetic(antithetic);
+        dropBlocks();
+    }
+
+    @Override
+    public void resetSampledMean() {
+        super.resetSampledMean();
+        generator.resetSampledMean();
+    }
+
+    private void dropBlocks() {
+        position = block.length;
+        intPosition = block.length;
+    }
+}
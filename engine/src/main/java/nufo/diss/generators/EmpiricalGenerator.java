@@ -0,0 +1,150 @@
+package nufo.diss.generators;
+
+import java.util.List;
+
+/**
+ * Mixture of uniform distributions over intervals with given probabilities. The interval is chosen in constant time
+ * by the alias method of Walker in the construction of Vose, whatever the number of intervals, and the value within
+ * it is drawn from the same stream.
+ */
+public class EmpiricalGenerator extends Generator {
+    private final double[] minValues;
+    private final double[] maxValues;
+    private final double[] probabilities;
+    // Interval i is kept with probability aliasThresholds[i] and replaced by aliases[i] otherwise.
+    private final double[] aliasThresholds;
+    private final int[] aliases;
+
+    public EmpiricalGenerator(List<Double> minValues, List<Double> maxValues, List<Double> probabilities, Mode mode) {
+        this(toArray(minValues), toArray(maxValues), toArray(probabilities), mode);
+    }
+
+    public EmpiricalGenerator(double[] minValues, double[] maxValues, double[] probabilities, Mode mode) {
+        super(mode);
+
+        if (minValues.length != maxValues.length || minValues.length != probabilities.length) {
+            throw new IllegalArgumentException("Sizes of lists minValues, maxValues and probabilities must be same.");
+        }
+        if (probabilities.length == 0) {
+            throw new IllegalArgumentException("At least one interval is needed.");
+        }
+
+        this.minValues = minValues.clone();
+        this.maxValues = maxValues.clone();
+
+        this.probabilities = probabilities.clone();
+        validateProbabilities();
+
+        aliasThresholds = new double[probabilities.length];
+        aliases = new int[probabilities.length];
+        computeAliasTable();
+    }
+
+    @Override
+    public int nextInt() {
+        int index = getIntervalIndex();
+        return (int) sample((int) minValues[index] + (int) (nextUniform() * ((int) maxValues[index] - (int) minValues[index])));
+    }
+
+    @Override
+    public double nextDouble() {
+        int index = getIntervalIndex();
+        return sample(nextUniform() * (maxValues[index] - minValues[index]) + minValues[index]);
+    }
+
+    @Override
+    public void fill(double[] values, int from, int to) {
+        // The index and the value within the interval come one after the other from the stream, as in nextDouble.
+        for (int i = from; i < to; i++) {
+            int index = getIntervalIndex();
+            values[i] = nextUniform() * (maxValues[index] - minValues[index]) + minValues[index];
+        }
+        sample(values, from, to);
+    }
+
+    @Override
+    public double getMean() {
+        double mean = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            mean += probabilities[i] * (mode == Mode.DISCRETE
+                    ? ((int) minValues[i] + (int) maxValues[i] - 1) / 2.0
+                    : (minValues[i] + maxValues[i]) / 2);
+        }
+        return mean;
+    }
+
+    public int getNumberOfIntervals() {
+        return probabilities.length;
+    }
+
+    // The integer part of u * n picks a column of the table and the fraction decides between it and its alias.
+    private int getIntervalIndex() {
+        double scaled = nextUniform() * probabilities.length;
+        int index = (int) scaled;
+        return scaled - index < aliasThresholds[index] ? index : aliases[index];
+    }
+
+    /**
+     * Scales the probabilities so that their mean is 1 and repeatedly fills the column of an interval below 1 with
+     * the excess of one above 1, until every column is full.
+     */
+    private void computeAliasTable() {
+        int n = probabilities.length;
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = probabilities[i] * n;
+            aliases[i] = i;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            aliasThresholds[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is 1 up to rounding errors.
+        while (largeCount > 0) {
+            aliasThresholds[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            aliasThresholds[small[--smallCount]] = 1.0;
+        }
+    }
+
+    private void validateProbabilities() {
+        double sum = 0.0;
+        for (double probability : probabilities) {
+            if (!(probability >= 0)) {
+                throw new IllegalArgumentException("Probabilities must not be negative but one is " + probability);
+            }
+            sum += probability;
+        }
+        if (Math.abs(sum - 1.0) > 1e-9) {
+            throw new IllegalArgumentException("Sum of probabilities must be 1.0 but is " + sum);
+        }
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,110 @@
+package nufo.diss.generators;
+
+public class ExponentialGenerator extends Generator {
+    // Ziggurat of Marsaglia and Tsang with 256 layers of equal area, the base layer includes the tail beyond R.
+    private static final int LAYERS = 256;
+    private static final double R = 7.69711747013104972;
+    private static final double LAYER_AREA = 3.949659822581572e-3;
+    private static final double[] LAYER_WIDTHS = new double[LAYERS + 1];
+    private static final double[] LAYER_DENSITIES = new double[LAYERS + 1];
+
+    static {
+        LAYER_WIDTHS[0] = LAYER_AREA / Math.exp(-R);
+        LAYER_WIDTHS[1] = R;
+        for (int i = 1; i < LAYERS - 1; i++) {
+            LAYER_WIDTHS[i + 1] = -Math.log(Math.exp(-LAYER_WIDTHS[i]) + LAYER_AREA / LAYER_WIDTHS[i]);
+        }
+        LAYER_WIDTHS[LAYERS] = 0.0;
+        for (int i = 0; i <= LAYERS; i++) {
+            LAYER_DENSITIES[i] = Math.exp(-LAYER_WIDTHS[i]);
+        }
+    }
+
+    private final double lambda;
+    private final Algorithm algorithm;
+
+    public ExponentialGenerator(double lambda) {
+        this(lambda, Algorithm.INVERSION);
+    }
+
+    public ExponentialGenerator(double lambda, Algorithm algorithm) {
+        super(Mode.CONTINUOUS);
+
+        this.lambda = lambda;
+        this.algorithm = algorithm;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public int nextInt() {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public double nextDouble() {
+        return sample(switch (algorithm) {
+            case INVERSION -> -Math.log(1 - nextUniform()) / lambda;
+            case ZIGGURAT -> nextZiggurat() / lambda;
+        });
+    }
+
+    @Override
+    public void fill(double[] values, int from, int to) {
+        if (algorithm == Algorithm.ZIGGURAT) {
+            for (int i = from; i < to; i++) {
+                values[i] = nextZiggurat() / lambda;
+            }
+            sample(values, from, to);
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            values[i] = nextUniform();
+        }
+        // The lanewise LOG of the incubating Vector API is several times faster, but its results differ from
+        // Math.log in the last bit for some values, and fill has to return exactly the values of nextDouble.
+        for (int i = from; i < to; i++) {
+            values[i] = -Math.log(1 - values[i]) / lambda;
+        }
+        sample(values, from, to);
+    }
+
+    @Override
+    public double getMean() {
+        return 1 / lambda;
+    }
+
+    // Standard exponential value. The integer part of 256 u picks a layer and its fraction the position in it, which
+    // is accepted at once unless it falls beyond the narrower layer above, so log is needed in about 1 % of draws.
+    private double nextZiggurat() {
+        while (true) {
+            double scaled = nextUniform() * LAYERS;
+            int layer = (int) scaled;
+            double x = (scaled - layer) * LAYER_WIDTHS[layer];
+            if (x < LAYER_WIDTHS[layer + 1]) {
+                return x;
+            }
+            if (layer == 0) {
+                // The exponential distribution is memoryless, the tail is R plus another exponential value.
+                return R - Math.log(nextUniform());
+            }
+            double y = LAYER_DENSITIES[layer] + nextUniform() * (LAYER_DENSITIES[layer + 1] - LAYER_DENSITIES[layer]);
+            if (y < Math.exp(-x)) {
+                return x;
+            }
+        }
+    }
+
+    public enum Algorithm {
+        INVERSION,
+        /**
+         * Not monotone in the uniform values it draws: 1 - u moves a draw to another layer and may change what is
+         * rejected. Antithetic streams of it are practically uncorrelated, about -0.001 against -0.64 of inversion,
+         * so antithetic pairs reduce no variance with it.
+         */
+        ZIGGURAT
+    }
+}
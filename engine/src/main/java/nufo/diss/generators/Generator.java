@@ -0,0 +1,123 @@
+package nufo.diss.generators;
+
+import java.util.random.RandomGenerator;
+
+public abstract class Generator {
+    protected Mode mode;
+    private RandomGenerator random;
+    private boolean antithetic;
+    private double sampleSum;
+    private long sampleCount;
+
+    Generator(Mode mode) {
+        this.mode = mode;
+        this.random = RandomStreams.create();
+    }
+
+    public abstract int nextInt();
+    public abstract double nextDouble();
+
+    /**
+     * Fills the array with the next values of the stream, the same values that as many calls of
+     * {@link #nextDouble()} return.
+     */
+    public void fill(double[] values) {
+        fill(values, 0, values.length);
+    }
+
+    public void fill(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextDouble();
+        }
+    }
+
+    /**
+     * Fills the array with the next integer values of the stream, the same values that as many calls of
+     * {@link #nextInt()} return.
+     */
+    public void fill(int[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextInt();
+        }
+    }
+
+    public double[] nextDoubles(int count) {
+        double[] values = new double[count];
+        fill(values);
+        return values;
+    }
+
+    /**
+     * Mean of the distribution the generator samples from.
+     */
+    public abstract double getMean();
+
+    /**
+     * Restarts the random stream of the generator, generators with more streams derive the others from the seed.
+     * Until then the stream is seeded from the entropy of the system.
+     */
+    public void setSeed(long seed) {
+        random = RandomStreams.create(seed);
+    }
+
+    /**
+     * Antithetic generator transforms 1 - u in place of every uniform u it draws, so that after reseeding it with
+     * the same seed it returns values negatively correlated with those of the regular stream.
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    public boolean isAntithetic() {
+        return antithetic;
+    }
+
+    /**
+     * Mean of the values returned since the last reset, NaN if there were none. Its deviation from
+     * {@link #getMean()} can serve as a control variate.
+     */
+    public double getSampledMean() {
+        return sampleCount > 0 ? sampleSum / sampleCount : Double.NaN;
+    }
+
+    public void resetSampledMean() {
+        sampleSum = 0.0;
+        sampleCount = 0;
+    }
+
+    protected double sample(double value) {
+        sampleSum += value;
+        sampleCount++;
+        return value;
+    }
+
+    protected void sample(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            sampleSum += values[i];
+        }
+        sampleCount += to - from;
+    }
+
+    /**
+     * Uniform value from the open interval (0, 1). The grid is symmetric around 1/2, so 1 - u is exact and never
+     * hits the bounds either.
+     */
+    protected double nextUniform() {
+        double u = ((random.nextLong() >>> 11) + 0.5) * 0x1.0p-53;
+        return antithetic ? 1 - u : u;
+    }
+
+    /**
+     * 64 random bits, complemented for an antithetic generator. A uniform value built from a group of them on a grid
+     * symmetric around 1/2 then turns into 1 - u.
+     */
+    protected long nextBits() {
+        long bits = random.nextLong();
+        return antithetic ? ~bits : bits;
+    }
+
+    public enum Mode {
+        DISCRETE,
+        CONTINUOUS
+    }
+}
@@ -0,0 +1,59 @@
+package nufo.diss.generators;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Random streams of the generators. Every stream is an independent {@link RandomGenerator} of the
+ * {@value #ALGORITHM} family seeded from a master seed, the number of the stream and the number of the replication,
+ * so a run is reproduced bit for bit from its master seed and no stream is shared between threads.
+ */
+public final class RandomStreams {
+    public static final String ALGORITHM = "L64X128MixRandom";
+    private static final RandomGeneratorFactory<RandomGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private RandomStreams() {
+    }
+
+    /**
+     * Stream seeded from the entropy of the system, for generators whose values do not have to be reproduced.
+     */
+    public static RandomGenerator create() {
+        return FACTORY.create();
+    }
+
+    public static RandomGenerator create(long seed) {
+        return FACTORY.create(seed);
+    }
+
+    /**
+     * Stream of one replication derived from the master seed.
+     */
+    public static RandomGenerator create(long masterSeed, long stream, long replication) {
+        return create(deriveSeed(masterSeed, stream, replication));
+    }
+
+    /**
+     * Master seed for a run that does not have to be reproduced, taken from the entropy of the system.
+     */
+    public static long randomMasterSeed() {
+        return create().nextLong();
+    }
+
+    /**
+     * Seed of one random stream of one replication. Every stochastic input of a model has its own stream number, so
+     * a replication draws the same values for it in every configuration run from the same master seed and the
+     * configurations are compared under common random numbers.
+     */
+    public static long deriveSeed(long masterSeed, long stream, long replication) {
+        return mix(mix(masterSeed + GOLDEN_GAMMA * (stream + 1)) + GOLDEN_GAMMA * (replication + 1));
+    }
+
+    // Finalizer of SplitMix64, every input bit affects every output bit.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,136 @@
+package nufo.diss.generators;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Generator that returns the values of another generator and records them on its {@link VariateTape}. The values
+ * of a replication are collected in memory and appended to the file as one segment when it is finished, a
+ * replication that is not finished is left out.
+ */
+public class RecordingGenerator extends Generator {
+    private final Generator generator;
+    private final Path file;
+    private final int stream;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private double[] values = new double[1024];
+    private int count;
+    private int replication = -1;
+
+    public RecordingGenerator(Generator generator, Path directory, int stream, int part) {
+        super(generator.mode);
+
+        this.generator = generator;
+        this.file = VariateTape.file(directory, stream, part);
+        this.stream = stream;
+    }
+
+    public Generator getGenerator() {
+        return generator;
+    }
+
+    public void startReplication(int replication) {
+        this.replication = replication;
+        count = 0;
+    }
+
+    public void finishReplication() {
+        if (replication < 0) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                open();
+            }
+            int size = VariateTape.SEGMENT_HEADER_SIZE + count * Double.BYTES;
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            buffer.clear();
+            buffer.putInt(replication);
+            buffer.putInt(count);
+            buffer.asDoubleBuffer().put(values, 0, count);
+            buffer.position(size);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        replication = -1;
+    }
+
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        channel = null;
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) sample(record(generator.nextInt()));
+    }
+
+    @Override
+    public double nextDouble() {
+        return sample(record(generator.nextDouble()));
+    }
+
+    @Override
+    public double getMean() {
+        return generator.getMean();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        generator.setSeed(seed);
+    }
+
+    @Override
+    public void setAntithetic(boolean antithetic) {
+        super.setAntithetic(antithetic);
+        generator.setAntithetic(antithetic);
+    }
+
+    @Override
+    public void resetSampledMean() {
+        super.resetSampledMean();
+        generator.resetSampledMean();
+    }
+
+    private double record(double value) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[count++] = value;
+        return value;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(VariateTape.MAGIC);
+        buffer.putInt(VariateTape.VERSION);
+        buffer.putInt(stream);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package nufo.diss.generators;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Generator that replays the values of a replication from a {@link VariateTape} and samples from a live generator
+ * once they run out or the replication was not recorded. Before its first live value the live generator skips the
+ * values replayed so far, so a tape recorded with the same seed continues exactly like the recorded stream, e.g. when
+ * the replay runs longer than the recording. The values on the tape are returned as they were recorded, an
+ * antithetic generator only turns its live values into antithetic ones.
+ */
+public class TapeGenerator extends Generator {
+    private final Generator generator;
+    private final VariateTape tape;
+    private DoubleBuffer values;
+    private int replayed;
+    private boolean live;
+    private long replayedValues;
+    private long liveValues;
+
+    public TapeGenerator(Generator generator, VariateTape tape) {
+        super(generator.mode);
+
+        this.generator = generator;
+        this.tape = tape;
+    }
+
+    public Generator getGenerator() {
+        return generator;
+    }
+
+    public void startReplication(int replication) {
+        values = tape.getValues(replication);
+        replayed = 0;
+        live = false;
+    }
+
+    /**
+     * Number of values returned from the tape since the generator was created.
+     */
+    public long getReplayedValues() {
+        return replayedValues;
+    }
+
+    /**
+     * Number of values sampled live since the generator was created.
+     */
+    public long getLiveValues() {
+        return liveValues;
+    }
+
+    @Override
+    public int nextInt() {
+        if (isOnTape()) {
+            return (int) sample(nextFromTape());
+        }
+        liveValues++;
+        return (int) sample(generator.nextInt());
+    }
+
+    @Override
+    public double nextDouble() {
+        if (isOnTape()) {
+            return sample(nextFromTape());
+        }
+        liveValues++;
+        return sample(generator.nextDouble());
+    }
+
+    @Override
+    public double getMean() {
+        return generator.getMean();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        generator.setSeed(seed);
+    }
+
+    @Override
+    public void setAntithetic(boolean antithetic) {
+        super.setAntithetic(antithetic);
+        generator.setAntithetic(antithetic);
+    }
+
+    @Override
+    public void resetSampledMean() {
+        super.resetSampledMean();
+        generator.resetSampledMean();
+    }
+
+    private boolean isOnTape() {
+        if (live) {
+            return false;
+        }
+        if (values != null && replayed < values.limit()) {
+            return true;
+        }
+
+        // Every generator draws as many uniforms for an integer as for a double.
+        live = true;
+        for (int i = 0; i < replayed; i++) {
+            generator.nextDouble();
+        }
+        return false;
+    }
+
+    private double nextFromTape() {
+        replayedValues++;
+        return values.get(replayed++);
+    }
+}
@@ -0,0 +1,92 @@
+package nufo.diss.generators;
+
+public class TriangularGenerator extends Generator {
+    private final double min;
+    private final double max;
+    private final double modus;
+    private final double f;
+    private final Algorithm algorithm;
+
+    public TriangularGenerator(double min, double max, double modus) {
+        this(min, max, modus, Algorithm.INVERSION);
+    }
+
+    public TriangularGenerator(double min, double max, double modus, Algorithm algorithm) {
+        super(Mode.CONTINUOUS);
+
+        this.min = min;
+        this.max = max;
+        this.modus = modus;
+        this.algorithm = algorithm;
+        f = (modus - min) / (max - min);
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public int nextInt() {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    @Override
+    public double nextDouble() {
+        if (algorithm == Algorithm.MIN_MAX) {
+            return sample(nextMinMax());
+        }
+
+        double u = nextUniform();
+
+        if (u < f) {
+            return sample(min + Math.sqrt(u * (max - min) * (modus - min)));
+        }
+        return sample(max - Math.sqrt((1 - u) * (max - min) * (max - modus)));
+    }
+
+    @Override
+    public void fill(double[] values, int from, int to) {
+        if (algorithm == Algorithm.MIN_MAX) {
+            for (int i = from; i < to; i++) {
+                values[i] = nextMinMax();
+            }
+            sample(values, from, to);
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            values[i] = nextUniform();
+        }
+        for (int i = from; i < to; i++) {
+            double u = values[i];
+            values[i] = u < f
+                    ? min + Math.sqrt(u * (max - min) * (modus - min))
+                    : max - Math.sqrt((1 - u) * (max - min) * (max - modus));
+        }
+        sample(values, from, to);
+    }
+
+    @Override
+    public double getMean() {
+        return (min + max + modus) / 3;
+    }
+
+    // Stein and Keblis, f max(u, v) + (1 - f) min(u, v) is triangular on (0, 1) with mode f, no square root and no
+    // branch the processor could mispredict. Both uniforms take 32 bits of one draw, a resolution far below that of
+    // the times sampled.
+    private double nextMinMax() {
+        long bits = nextBits();
+        double u = ((bits >>> 32) + 0.5) * 0x1.0p-32;
+        double v = ((bits & 0xFFFFFFFFL) + 0.5) * 0x1.0p-32;
+        return min + (max - min) * (f * Math.max(u, v) + (1 - f) * Math.min(u, v));
+    }
+
+    public enum Algorithm {
+        INVERSION,
+        /**
+         * Not monotone in the uniform values unless the mode is in the middle, antithetic streams of it correlate
+         * less than those of inversion, about -0.71 against -0.95 with the mode at a seventh of the range.
+         */
+        MIN_MAX
+    }
+}
@@ -0,0 +1,40 @@
+package nufo.diss.generators;
+
+public class UniformGenerator extends Generator {
+    private final double min;
+    private final double max;
+
+    public UniformGenerator(double min, double max, Mode mode) {
+        super(mode);
+
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) sample((int) min + (int) (nextUniform() * ((int) max - (int) min)));
+    }
+
+    @Override
+    public double nextDouble() {
+        return sample(nextUniform() * (max - min) + min);
+    }
+
+    @Override
+    public void fill(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = nextUniform();
+        }
+        // Without the stream in it the loop is left to the superword optimization of the JIT.
+        for (int i = from; i < to; i++) {
+            values[i] = values[i] * (max - min) + min;
+        }
+        sample(values, from, to);
+    }
+
+    @Override
+    public double getMean() {
+        return mode == Mode.DISCRETE ? ((int) min + (int) max - 1) / 2.0 : (min + max) / 2;
+    }
+}
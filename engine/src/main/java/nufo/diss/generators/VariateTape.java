@@ -0,0 +1,144 @@
+package nufo.diss.generators;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Hashtable;
+import java.util.Map;
+
+/**
+ * Values drawn by one random stream, recorded by {@link RecordingGenerator} and replayed by {@link TapeGenerator}.
+ * Every stream has its own files in the tape directory, one for every thread that recorded replications, each a
+ * header followed by segments holding the replication number, the number of values and the values themselves.
+ * <p>
+ * The files are memory-mapped and indexed when the tape is opened, the values of a replication are then read
+ * straight from the mapping. A file larger than one mapping is mapped in chunks of whole segments, a new chunk starts
+ * at the first segment that does not fit into the previous one. A tape can be shared by the threads replaying it.
+ */
+public class VariateTape {
+    static final int MAGIC = 0x56544150;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int SEGMENT_HEADER_SIZE = 8;
+    static final long CHUNK_SIZE = Integer.MAX_VALUE;
+
+    private final int stream;
+    private final Map<Integer, DoubleBuffer> replications = new Hashtable<>();
+
+    private VariateTape(int stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * File of the part of the stream recorded by one thread.
+     */
+    public static Path file(Path directory, int stream, int part) {
+        return directory.resolve("stream-" + stream + "-" + part + ".tape");
+    }
+
+    /**
+     * Deletes the files of all streams in the directory, so that a new recording does not mix with an old one.
+     */
+    public static void deleteAll(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "stream-*.tape")) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Opens all files of the stream in the directory, a stream that was not recorded has an empty tape.
+     */
+    public static VariateTape open(Path directory, int stream) throws IOException {
+        return open(directory, stream, CHUNK_SIZE);
+    }
+
+    static VariateTape open(Path directory, int stream, long chunkSize) throws IOException {
+        VariateTape tape = new VariateTape(stream);
+        if (!Files.isDirectory(directory)) {
+            return tape;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "stream-" + stream + "-*.tape")) {
+            for (Path file : files) {
+                tape.index(file, chunkSize);
+            }
+        }
+        return tape;
+    }
+
+    public int getStream() {
+        return stream;
+    }
+
+    public int getNumberOfReplications() {
+        return replications.size();
+    }
+
+    /**
+     * Values of the replication from position 0 to the limit, null if it was not recorded.
+     */
+    public DoubleBuffer getValues(int replication) {
+        DoubleBuffer values = replications.get(replication);
+        return values != null ? values.duplicate() : null;
+    }
+
+    // The mappings stay valid after the channel is closed.
+    private void index(Path file, long chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkStart = 0;
+            ByteBuffer chunk = map(channel, chunkStart, Math.min(size, chunkSize));
+            if (chunk.limit() < HEADER_SIZE || chunk.getInt(0) != MAGIC || chunk.getInt(4) != VERSION || chunk.getInt(8) != stream) {
+                throw new IOException(file + " is not a tape of stream " + stream);
+            }
+
+            long position = HEADER_SIZE;
+            while (position + SEGMENT_HEADER_SIZE <= size) {
+                if (position + SEGMENT_HEADER_SIZE > chunkStart + chunk.limit()) {
+                    chunkStart = position;
+                    chunk = map(channel, chunkStart, Math.min(size - chunkStart, chunkSize));
+                }
+                int replication = chunk.getInt((int) (position - chunkStart));
+                int count = chunk.getInt((int) (position - chunkStart) + 4);
+                long segmentSize = SEGMENT_HEADER_SIZE + (long) count * Double.BYTES;
+                if (count < 0 || position + segmentSize > size) {
+                    throw new IOException(file + " ends inside replication " + replication);
+                }
+                if (segmentSize > chunkSize) {
+                    throw new IOException("Replication " + replication + " in " + file + " is larger than one mapping");
+                }
+                if (position + segmentSize > chunkStart + chunk.limit()) {
+                    chunkStart = position;
+                    chunk = map(channel, chunkStart, Math.min(size - chunkStart, chunkSize));
+                }
+                int offset = (int) (position - chunkStart) + SEGMENT_HEADER_SIZE;
+                DoubleBuffer values = chunk.slice(offset, count * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                if (replications.put(replication, values) != null) {
+                    throw new IOException("Replication " + replication + " is recorded twice on the tape of stream " + stream);
+                }
+                position += segmentSize;
+            }
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        return mapping.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public enum Mode {
+        RECORD,
+        REPLAY
+    }
+}
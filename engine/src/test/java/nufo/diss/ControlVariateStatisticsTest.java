@@ -0,0 +1,152 @@
+package nufo.diss;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ControlVariateStatisticsTest {
+    private static final double TRUE_MEAN = 100.0;
+
+    @Test
+    void controlledMeanAndIntervalMatchOrdinaryLeastSquares() {
+        SplittableRandom random = new SplittableRandom(18);
+        int n = 60;
+        double[][] design = new double[n][];
+        double[] responses = new double[n];
+        ControlVariateStatistics statistics = new ControlVariateStatistics();
+        for (int i = 0; i < n; i++) {
+            double[] controls = sampleControls(random);
+            responses[i] = sampleResponse(random, controls);
+            design[i] = new double[]{1.0, controls[0], controls[1]};
+            statistics.addValue(responses[i], controls);
+        }
+
+        // The controlled mean is the intercept of y = b0 + b1 c1 + b2 c2, its variance s^2 (X'X)^-1 at [0][0].
+        double[][] normal = new double[3][3];
+        double[] moments = new double[3];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 3; j++) {
+                moments[j] += design[i][j] * responses[i];
+                for (int k = 0; k < 3; k++) {
+                    normal[j][k] += design[i][j] * design[i][k];
+                }
+            }
+        }
+        double[][] inverse = invert(normal);
+        double[] coefficients = new double[3];
+        for (int j = 0; j < 3; j++) {
+            for (int k = 0; k < 3; k++) {
+                coefficients[j] += inverse[j][k] * moments[k];
+            }
+        }
+        double residualSumOfSquares = 0.0;
+        for (int i = 0; i < n; i++) {
+            double residual = responses[i];
+            for (int j = 0; j < 3; j++) {
+                residual -= coefficients[j] * design[i][j];
+            }
+            residualSumOfSquares += residual * residual;
+        }
+        double halfWidth = Statistics.studentTQuantile(0.05, n - 3) * Math.sqrt(residualSumOfSquares / (n - 3) * inverse[0][0]);
+
+        assertEquals(coefficients[0], statistics.getMean(), 1e-9 * TRUE_MEAN);
+        assertEquals(halfWidth, statistics.getConfidenceIntervalHalfWidth(), 1e-9 * halfWidth);
+    }
+
+    @Test
+    void mergedStatisticsEqualOne() {
+        SplittableRandom random = new SplittableRandom(19);
+        ControlVariateStatistics whole = new ControlVariateStatistics();
+        ControlVariateStatistics first = new ControlVariateStatistics();
+        ControlVariateStatistics second = new ControlVariateStatistics();
+        for (int i = 0; i < 200; i++) {
+            double[] controls = sampleControls(random);
+            double response = sampleResponse(random, controls);
+            whole.addValue(response, controls);
+            (i < 70 ? first : second).addValue(response, controls);
+        }
+        first.merge(second);
+
+        assertEquals(whole.getCount(), first.getCount());
+        assertEquals(whole.getMean(), first.getMean(), 1e-9 * TRUE_MEAN);
+        assertEquals(whole.getConfidenceIntervalHalfWidth(), first.getConfidenceIntervalHalfWidth(), 1e-9 * whole.getConfidenceIntervalHalfWidth());
+    }
+
+    @Test
+    void intervalCoversTrueMeanAtConfidenceLevel() {
+        SplittableRandom random = new SplittableRandom(20);
+        int trials = 4000;
+        int covered = 0;
+        double controlledHalfWidths = 0.0;
+        double plainHalfWidths = 0.0;
+        for (int trial = 0; trial < trials; trial++) {
+            ControlVariateStatistics controlled = new ControlVariateStatistics();
+            Statistics plain = new Statistics();
+            for (int i = 0; i < 30; i++) {
+                double[] controls = sampleControls(random);
+                double response = sampleResponse(random, controls);
+                controlled.addValue(response, controls);
+                plain.addValue(response);
+            }
+            if (Math.abs(controlled.getMean() - TRUE_MEAN) <= controlled.getConfidenceIntervalHalfWidth()) {
+                covered++;
+            }
+            controlledHalfWidths += controlled.getConfidenceIntervalHalfWidth();
+            plainHalfWidths += plain.getConfidenceIntervalHalfWidth();
+        }
+
+        // Three binomial standard deviations of 4000 trials at 95% are 1%.
+        double coverage = (double) covered / trials;
+        assertTrue(coverage >= 0.94 && coverage <= 0.96, "Coverage " + coverage);
+        assertTrue(controlledHalfWidths < 0.5 * plainHalfWidths, "Controls did not narrow the interval.");
+    }
+
+    // Zero-mean controls of different magnitudes, as the deviations of sampled means in the model.
+    private static double[] sampleControls(SplittableRandom random) {
+        return new double[]{random.nextGaussian() * 0.01, random.nextGaussian() * 50.0};
+    }
+
+    private static double sampleResponse(SplittableRandom random, double[] controls) {
+        return TRUE_MEAN + 800.0 * controls[0] + 0.2 * controls[1] + random.nextGaussian() * 3.0;
+    }
+
+    private static double[][] invert(double[][] matrix) {
+        int n = matrix.length;
+        double[][] augmented = new double[n][2 * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix[i], 0, augmented[i], 0, n);
+            augmented[i][n + i] = 1.0;
+        }
+        for (int column = 0; column < n; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < n; row++) {
+                if (Math.abs(augmented[row][column]) > Math.abs(augmented[pivot][column])) {
+                    pivot = row;
+                }
+            }
+            double[] swap = augmented[column];
+            augmented[column] = augmented[pivot];
+            augmented[pivot] = swap;
+            double divisor = augmented[column][column];
+            for (int k = 0; k < 2 * n; k++) {
+                augmented[column][k] /= divisor;
+            }
+            for (int row = 0; row < n; row++) {
+                if (row != column) {
+                    double factor = augmented[row][column];
+                    for (int k = 0; k < 2 * n; k++) {
+                        augmented[row][k] -= factor * augmented[column][k];
+                    }
+                }
+            }
+        }
+        double[][] inverse = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(augmented[i], n, inverse[i], 0, n);
+        }
+        return inverse;
+    }
+}
@@ -0,0 +1,100 @@
+package nufo.diss;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventCalendarTest {
+    @Test
+    void calendarQueuePollsInOrderOfBinaryHeap() {
+        SplittableRandom random = new SplittableRandom(2);
+        EventCalendar heap = EventCalendar.Type.BINARY_HEAP.create();
+        EventCalendar queue = EventCalendar.Type.CALENDAR_QUEUE.create();
+        Schedule schedule = new Schedule(heap, queue);
+
+        // Each phase grows the calendars through several bucket counts and drains them again, the time scale of
+        // the phase changes the bucket width the resizes settle on.
+        double[] meanIncrements = {1.0, 1000.0, 0.001, 50.0};
+        for (double meanIncrement : meanIncrements) {
+            for (int i = 0; i < 3000; i++) {
+                schedule.add(schedule.nextTime(random, meanIncrement));
+                if (i % 3 == 2) {
+                    schedule.pollAndCompare();
+                }
+            }
+            // Hold model, every polled event schedules one more.
+            for (int i = 0; i < 5000; i++) {
+                schedule.pollAndCompare();
+                schedule.add(schedule.nextTime(random, meanIncrement));
+            }
+            while (!heap.isEmpty()) {
+                schedule.pollAndCompare();
+            }
+            assertTrue(queue.isEmpty());
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    void simulationResultsAreSameOnBothCalendars() {
+        FurnitureSimulation heap = SimulationRuns.create(10, 2, 1);
+        heap.setEventCalendarType(EventCalendar.Type.BINARY_HEAP);
+        FurnitureSimulation queue = SimulationRuns.create(10, 2, 1);
+        queue.setEventCalendarType(EventCalendar.Type.CALENDAR_QUEUE);
+
+        SimulationRuns.assertSameResults(SimulationRuns.run(heap), SimulationRuns.run(queue));
+    }
+
+    private static final class Schedule {
+        private final EventCalendar heap;
+        private final EventCalendar queue;
+        private long nextSequenceNumber;
+        private double currentTime;
+
+        Schedule(EventCalendar heap, EventCalendar queue) {
+            this.heap = heap;
+            this.queue = queue;
+        }
+
+        // Mostly exponential increments, a quarter of the events at exactly the current time and some rounded to a
+        // coarse grid, so that many events share their execution time.
+        double nextTime(SplittableRandom random, double meanIncrement) {
+            double choice = random.nextDouble();
+            if (choice < 0.25) {
+                return currentTime;
+            }
+            double time = currentTime - meanIncrement * Math.log(1 - random.nextDouble());
+            return choice < 0.5 ? Math.ceil(time / meanIncrement) * meanIncrement : time;
+        }
+
+        void add(double time) {
+            long sequenceNumber = nextSequenceNumber++;
+            heap.add(new TestEvent(time, sequenceNumber));
+            queue.add(new TestEvent(time, sequenceNumber));
+            assertEquals(heap.size(), queue.size());
+        }
+
+        void pollAndCompare() {
+            TestEvent expected = (TestEvent) heap.poll();
+            TestEvent actual = (TestEvent) queue.poll();
+            assertEquals(expected.sequenceNumber, actual.sequenceNumber, "Event polled at " + currentTime);
+            assertEquals(expected.getExecutionTime(), actual.getExecutionTime());
+            assertTrue(actual.getExecutionTime() >= currentTime, "Simulation time decreased.");
+            currentTime = actual.getExecutionTime();
+        }
+    }
+
+    private static final class TestEvent extends Event {
+        TestEvent(double executionTime, long sequenceNumber) {
+            super(null, executionTime);
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public void execute() { }
+    }
+}
@@ -0,0 +1,21 @@
+package nufo.diss;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLoopAllocationTest {
+    @ParameterizedTest
+    @EnumSource(EventCalendar.Type.class)
+    void steadyStateEventLoopStaysWithinAllocationBudget(EventCalendar.Type eventCalendarType) {
+        FurnitureSimulation simulation = new FurnitureSimulation(20, EventSimulation.TimeMode.VIRTUAL_TIME, 249 * 8 * 60 * 60 - 1, 2, 2, 18);
+        simulation.setEventCalendarType(eventCalendarType);
+        simulation.setAllocationCheck(true);
+
+        assertDoesNotThrow(simulation::run);
+        assertTrue(simulation.getAllocationCheckedExperiments() > 0, "No experiment reached steady state, run more replications.");
+        assertTrue(simulation.getMaxAllocatedBytes() <= AllocationProbe.ALLOCATED_BYTES_BUDGET);
+    }
+}
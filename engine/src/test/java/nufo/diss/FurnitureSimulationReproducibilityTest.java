@@ -0,0 +1,122 @@
+package nufo.diss;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import nufo.diss.generators.ExponentialGenerator;
+import nufo.diss.generators.TriangularGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FurnitureSimulationReproducibilityTest {
+    private static final long SEED = 11;
+
+    @Test
+    void antitheticPairsAreTheSameOnWorkers() {
+        FurnitureSimulation sequential = SimulationRuns.create(40, SEED, 1);
+        sequential.setAntitheticVariates(true);
+        FurnitureSimulation parallel = SimulationRuns.create(40, SEED, 4);
+        parallel.setAntitheticVariates(true);
+
+        FurnitureSimulation.ReplicationData expected = SimulationRuns.run(sequential);
+        assertEquals(40, expected.numberOfDoneReplications());
+        SimulationRuns.assertSameResults(expected, SimulationRuns.run(parallel));
+    }
+
+    @Test
+    void parallelRunReproducesSequentialRun(@TempDir Path directory) throws IOException {
+        FurnitureSimulation sequential = SimulationRuns.create(40, SEED, 1);
+        sequential.setWarmupDetection(true);
+        sequential.setReplicationStoreFile(directory.resolve("sequential.store"));
+        FurnitureSimulation parallel = SimulationRuns.create(40, SEED, 4);
+        parallel.setWarmupDetection(true);
+        parallel.setReplicationStoreFile(directory.resolve("parallel.store"));
+
+        SimulationRuns.assertSameResults(SimulationRuns.run(sequential), SimulationRuns.run(parallel));
+        sequential.getReplicationStore().close();
+        parallel.getReplicationStore().close();
+        assertArrayEquals(Files.readAllBytes(directory.resolve("sequential.store")), Files.readAllBytes(directory.resolve("parallel.store")));
+    }
+
+    @Test
+    void stoppedParallelRunReportsRecordedReplications() throws InterruptedException {
+        FurnitureSimulation parallel = SimulationRuns.create(400, SEED, 4);
+        CountDownLatch replications = new CountDownLatch(10);
+        parallel.getReplicationPublisher().subscribe(SimulationControlTest.subscriber(item -> replications.countDown()), SimulationPublisher.OverflowPolicy.LATEST, Runnable::run);
+        Thread stopper = new Thread(() -> {
+            try {
+                replications.await();
+                parallel.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        FurnitureSimulation.ReplicationData actual = SimulationRuns.run(parallel);
+        stopper.join();
+        assertEquals(StoppingPolicy.StopReason.STOPPED, parallel.getStopReason());
+
+        // Replications finished ahead of one the stop cut short are left out of the count as well as the results.
+        FurnitureSimulation.ReplicationData expected = SimulationRuns.run(SimulationRuns.create(actual.numberOfDoneReplications(), SEED, 1));
+        SimulationRuns.assertSameResults(expected, actual);
+    }
+
+    @Test
+    void resumedRunReproducesUninterruptedRun(@TempDir Path directory) throws IOException {
+        for (int parallelism : new int[]{1, 4}) {
+            FurnitureSimulation uninterrupted = SimulationRuns.create(40, SEED, parallelism);
+            uninterrupted.setReplicationStoreFile(directory.resolve("uninterrupted.store"));
+            FurnitureSimulation.ReplicationData expected = SimulationRuns.run(uninterrupted);
+            uninterrupted.getReplicationStore().close();
+
+            // The first run ends after 15 replications and leaves its checkpoint, the second one continues it.
+            Path checkpoint = directory.resolve("checkpoint-" + parallelism);
+            FurnitureSimulation interrupted = SimulationRuns.create(15, SEED, parallelism);
+            interrupted.setReplicationStoreFile(directory.resolve("resumed.store"));
+            interrupted.setCheckpointing(checkpoint, Duration.ofHours(1));
+            SimulationRuns.run(interrupted);
+            interrupted.getReplicationStore().close();
+
+            FurnitureSimulation resumed = SimulationRuns.create(40, SEED + 1, parallelism);
+            resumed.setReplicationStoreFile(directory.resolve("resumed.store"));
+            resumed.resumeFrom(checkpoint);
+
+            SimulationRuns.assertSameResults(expected, SimulationRuns.run(resumed));
+            resumed.getReplicationStore().close();
+            assertArrayEquals(Files.readAllBytes(directory.resolve("uninterrupted.store")), Files.readAllBytes(directory.resolve("resumed.store")), "parallelism " + parallelism);
+        }
+    }
+
+    @Test
+    void resumeRejectsCheckpointTakenWithOtherSettings(@TempDir Path directory) throws IOException {
+        Path checkpoint = directory.resolve("checkpoint");
+        FurnitureSimulation interrupted = SimulationRuns.create(4, SEED, 1);
+        interrupted.setCheckpointing(checkpoint, Duration.ofHours(1));
+        SimulationRuns.run(interrupted);
+
+        List<Consumer<FurnitureSimulation>> changes = List.of(
+                simulation -> simulation.setAntitheticVariates(true),
+                simulation -> simulation.setWarmupDetection(true),
+                simulation -> simulation.setSamplingAlgorithms(ExponentialGenerator.Algorithm.ZIGGURAT, TriangularGenerator.Algorithm.INVERSION),
+                simulation -> simulation.setSamplingAlgorithms(ExponentialGenerator.Algorithm.INVERSION, TriangularGenerator.Algorithm.MIN_MAX));
+        for (Consumer<FurnitureSimulation> change : changes) {
+            FurnitureSimulation resumed = SimulationRuns.create(8, SEED, 1);
+            change.accept(resumed);
+            resumed.resumeFrom(checkpoint);
+            assertThrows(IllegalArgumentException.class, resumed::run);
+        }
+
+        FurnitureSimulation resumed = SimulationRuns.create(8, SEED, 1);
+        resumed.resumeFrom(checkpoint);
+        assertEquals(8, SimulationRuns.run(resumed).numberOfDoneReplications());
+    }
+}
@@ -0,0 +1,64 @@
+package nufo.diss;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogHistogramTest {
+    private static final double[] QUANTILES = {0.0, 0.1, 0.5, 0.9, 0.95, 0.99, 0.999, 1.0};
+
+    @Test
+    void quantilesAreWithinRelativeAccuracyOfExactQuantiles() {
+        SplittableRandom random = new SplittableRandom(13);
+        double[] values = new double[200_000];
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal working times around a day, spanning several orders of magnitude.
+            values[i] = Math.exp(11 + 1.5 * random.nextGaussian());
+            histogram.addValue(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : QUANTILES) {
+            double exact = values[(int) (q * (values.length - 1))];
+            double estimate = histogram.getQuantile(q);
+            assertTrue(Math.abs(estimate - exact) <= LogHistogram.DEFAULT_RELATIVE_ACCURACY * exact,
+                    "q = " + q + ": estimate " + estimate + ", exact " + exact);
+        }
+    }
+
+    @Test
+    void mergedHistogramsGiveSameQuantilesAsOne() {
+        SplittableRandom random = new SplittableRandom(17);
+        LogHistogram whole = new LogHistogram();
+        LogHistogram first = new LogHistogram();
+        LogHistogram second = new LogHistogram();
+        for (int i = 0; i < 50_000; i++) {
+            double value = -3600 * Math.log(1 - random.nextDouble());
+            whole.addValue(value);
+            (i % 3 == 0 ? first : second).addValue(value);
+        }
+        first.merge(second);
+
+        assertEquals(whole.getCount(), first.getCount());
+        for (double q : QUANTILES) {
+            assertEquals(whole.getQuantile(q), first.getQuantile(q), "q = " + q);
+        }
+    }
+
+    @Test
+    void valuesOutsideRangeAreReportedExactlyAtTheEnds() {
+        LogHistogram histogram = new LogHistogram(0.01, 1.0, 1000.0);
+        histogram.addValue(0.25);
+        histogram.addValue(10.0);
+        histogram.addValue(5000.0);
+
+        assertEquals(0.25, histogram.getQuantile(0.0));
+        assertEquals(5000.0, histogram.getQuantile(1.0));
+        assertEquals(10.0, histogram.getQuantile(0.5), 10.0 * 0.01);
+    }
+}
@@ -0,0 +1,120 @@
+package nufo.diss;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulationControlTest {
+    private static final double HORIZON = 249 * 8 * 60 * 60 - 1;
+
+    @Test
+    void parallelRunSwitchedToRealTimePublishesEvents() throws InterruptedException {
+        FurnitureSimulation simulation = new FurnitureSimulation(1000, EventSimulation.TimeMode.VIRTUAL_TIME, HORIZON, 2, 2, 18);
+        simulation.setParallelism(2);
+        CountDownLatch replications = new CountDownLatch(1);
+        CountDownLatch events = new CountDownLatch(3);
+        simulation.getReplicationPublisher().subscribe(subscriber(item -> replications.countDown()), SimulationPublisher.OverflowPolicy.LATEST, Runnable::run);
+        simulation.getEventPublisher().subscribe(subscriber(item -> events.countDown()), SimulationPublisher.OverflowPolicy.LATEST, Runnable::run);
+
+        Thread thread = new Thread(simulation::run);
+        thread.start();
+        try {
+            assertTrue(replications.await(30, TimeUnit.SECONDS), "No replication finished.");
+            simulation.setTimeMultiplier(EventSimulation.TimeMultiplier.FASTER_100_000);
+            simulation.setExecutionMode(EventSimulation.TimeMode.REAL_TIME);
+
+            assertTrue(events.await(10, TimeUnit.SECONDS), "No events were published after the switch to real time.");
+        } finally {
+            simulation.stop();
+            thread.join();
+        }
+    }
+
+    @Test
+    void pausedParallelRunPublishesLatestReplications() throws InterruptedException {
+        FurnitureSimulation simulation = new FurnitureSimulation(1000, EventSimulation.TimeMode.VIRTUAL_TIME, HORIZON, 2, 2, 18);
+        simulation.setParallelism(4);
+        CountDownLatch replications = new CountDownLatch(5);
+        AtomicReference<FurnitureSimulation.ReplicationData> latest = new AtomicReference<>();
+        simulation.getReplicationPublisher().subscribe(subscriber(item -> {
+            latest.set((FurnitureSimulation.ReplicationData) item);
+            replications.countDown();
+        }), SimulationPublisher.OverflowPolicy.LATEST, Runnable::run);
+
+        Thread thread = new Thread(simulation::run);
+        thread.start();
+        try {
+            assertTrue(replications.await(30, TimeUnit.SECONDS), "No replication finished.");
+            simulation.pause();
+
+            // Every worker parks within an event, by then the snapshot of the last merged replication has to arrive.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (latest.get().numberOfDoneReplications() != recordedReplications(simulation) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(recordedReplications(simulation), latest.get().numberOfDoneReplications());
+        } finally {
+            simulation.stop();
+            thread.join();
+        }
+    }
+
+    @Test
+    void slowConsumerDoesNotHoldUpParallelRun() throws InterruptedException {
+        FurnitureSimulation simulation = SimulationRuns.create(40, 7, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        simulation.setConsumer(data -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Thread thread = new Thread(simulation::run);
+        thread.start();
+        // The consumer blocks on its first item until every replication is recorded.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (recordedReplications(simulation) < 40 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        int recorded = recordedReplications(simulation);
+        release.countDown();
+        thread.join();
+
+        assertEquals(40, recorded);
+    }
+
+    private static int recordedReplications(FurnitureSimulation simulation) {
+        synchronized (simulation.lock) {
+            return simulation.getRecordedReplications();
+        }
+    }
+
+    static <T> Flow.Subscriber<T> subscriber(Consumer<T> consumer) {
+        return new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                consumer.accept(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) { }
+
+            @Override
+            public void onComplete() { }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package nufo.diss;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class SimulationRuns {
+    static final double HORIZON = 30 * 8 * 60 * 60;
+
+    private SimulationRuns() { }
+
+    static FurnitureSimulation create(int numberOfReplications, long masterSeed, int parallelism) {
+        FurnitureSimulation simulation = new FurnitureSimulation(numberOfReplications, EventSimulation.TimeMode.VIRTUAL_TIME, HORIZON, 2, 2, 18);
+        simulation.setMasterSeed(masterSeed);
+        simulation.setParallelism(parallelism);
+        return simulation;
+    }
+
+    /**
+     * Runs the simulation on the calling thread and returns the results after the last replication.
+     */
+    static FurnitureSimulation.ReplicationData run(FurnitureSimulation simulation) {
+        FurnitureSimulation.ReplicationData[] result = new FurnitureSimulation.ReplicationData[1];
+        simulation.setConsumer(data -> {
+            if (data.stateChangeType() == SimulationCore.StateChangeType.EXPERIMENT) {
+                result[0] = (FurnitureSimulation.ReplicationData) data.data();
+            }
+        });
+        simulation.run();
+        return result[0];
+    }
+
+    /**
+     * Asserts that two runs have the same results bit for bit. The carpenters are compared by id, their state at the
+     * end of the last replication depends on which simulation ran it.
+     */
+    static void assertSameResults(FurnitureSimulation.ReplicationData expected, FurnitureSimulation.ReplicationData actual) {
+        assertEquals(withoutCarpenterWorkloads(expected), withoutCarpenterWorkloads(actual));
+        assertEquals(carpenterWorkloadsById(expected), carpenterWorkloadsById(actual));
+    }
+
+    private static FurnitureSimulation.ReplicationData withoutCarpenterWorkloads(FurnitureSimulation.ReplicationData data) {
+        return new FurnitureSimulation.ReplicationData(
+                data.numberOfDoneReplications(),
+                data.orderWorkingTime(),
+                data.orderWorkingTimeControlled(),
+                data.orderWorkingTimeP95(),
+                data.orderWorkingTimeP99(),
+                data.notYetStartedWorkOrders(),
+                data.warmupTime(),
+                data.averageQueueLengths(),
+                data.averageOccupiedWorkplaces(),
+                data.averageBusyCarpenters(),
+                data.carpenterGroupWorkloads(),
+                Map.of(),
+                data.stageTimes()
+        );
+    }
+
+    private static Map<Integer, Statistics.Data> carpenterWorkloadsById(FurnitureSimulation.ReplicationData data) {
+        Map<Integer, Statistics.Data> workloads = new TreeMap<>();
+        for (Map.Entry<FurnitureSimulation.Carpenter.Data, Statistics.Data> entry : data.carpenterWorkloads().entrySet()) {
+            workloads.put(entry.getKey().id(), entry.getValue());
+        }
+        return workloads;
+    }
+}
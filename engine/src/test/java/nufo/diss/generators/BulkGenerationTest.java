@@ -0,0 +1,91 @@
+package nufo.diss.generators;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkGenerationTest {
+    private static final long SEED = 22;
+    // Not a multiple of the block size, so that the last block is only partly read.
+    private static final int COUNT = 1000;
+    private static final int BLOCK_SIZE = 64;
+
+    static List<Supplier<Generator>> continuousGenerators() {
+        return List.of(
+                () -> new UniformGenerator(60, 480, Generator.Mode.CONTINUOUS),
+                () -> new ExponentialGenerator(1 / 1800.0, ExponentialGenerator.Algorithm.INVERSION),
+                () -> new ExponentialGenerator(1 / 1800.0, ExponentialGenerator.Algorithm.ZIGGURAT),
+                () -> new TriangularGenerator(60, 480, 120, TriangularGenerator.Algorithm.INVERSION),
+                () -> new TriangularGenerator(60, 480, 120, TriangularGenerator.Algorithm.MIN_MAX),
+                () -> empirical(Generator.Mode.CONTINUOUS));
+    }
+
+    static List<Supplier<Generator>> discreteGenerators() {
+        return List.of(
+                () -> new UniformGenerator(1, 7, Generator.Mode.DISCRETE),
+                () -> empirical(Generator.Mode.DISCRETE));
+    }
+
+    @ParameterizedTest
+    @MethodSource("continuousGenerators")
+    void fillReturnsValuesOfNextDouble(Supplier<Generator> factory) {
+        for (boolean antithetic : new boolean[]{false, true}) {
+            Generator single = seeded(factory.get(), antithetic);
+            Generator bulk = seeded(factory.get(), antithetic);
+
+            double[] expected = new double[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                expected[i] = single.nextDouble();
+            }
+            double[] values = new double[COUNT];
+            bulk.fill(values, 0, 300);
+            bulk.fill(values, 300, COUNT);
+
+            assertArrayEquals(expected, values);
+            assertEquals(single.getSampledMean(), bulk.getSampledMean(), 1e-12 * Math.abs(single.getSampledMean()));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("continuousGenerators")
+    void bufferedGeneratorReturnsValuesOfWrappedGenerator(Supplier<Generator> factory) {
+        for (boolean antithetic : new boolean[]{false, true}) {
+            Generator single = seeded(factory.get(), antithetic);
+            Generator buffered = seeded(new BufferedGenerator(factory.get(), BLOCK_SIZE), antithetic);
+
+            for (int i = 0; i < COUNT; i++) {
+                assertEquals(single.nextDouble(), buffered.nextDouble(), "value " + i);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("discreteGenerators")
+    void bufferedGeneratorReturnsIntegersOfWrappedGenerator(Supplier<Generator> factory) {
+        for (boolean antithetic : new boolean[]{false, true}) {
+            Generator single = seeded(factory.get(), antithetic);
+            Generator buffered = seeded(new BufferedGenerator(factory.get(), BLOCK_SIZE), antithetic);
+
+            for (int i = 0; i < COUNT; i++) {
+                assertEquals(single.nextInt(), buffered.nextInt(), "value " + i);
+            }
+            assertEquals(single.getSampledMean(), buffered.getSampledMean(), 1e-12 * single.getSampledMean());
+        }
+    }
+
+    private static Generator seeded(Generator generator, boolean antithetic) {
+        generator.setSeed(SEED);
+        generator.setAntithetic(antithetic);
+        return generator;
+    }
+
+    private static EmpiricalGenerator empirical(Generator.Mode mode) {
+        return new EmpiricalGenerator(new double[]{1, 4, 10, 30}, new double[]{4, 10, 30, 90},
+                new double[]{0.1, 0.4, 0.3, 0.2}, mode);
+    }
+}
@@ -0,0 +1,85 @@
+package nufo.diss.generators;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmpiricalGeneratorTest {
+    private static final int BINS = 300;
+    private static final int DRAWS = 2_000_000;
+
+    @Test
+    void intervalFrequenciesMatchProbabilities() {
+        double[] probabilities = probabilities(new SplittableRandom(23));
+        EmpiricalGenerator generator = generator(probabilities);
+        generator.setSeed(23);
+
+        double[] values = new double[DRAWS];
+        for (int i = 0; i < DRAWS; i++) {
+            values[i] = generator.nextDouble();
+        }
+
+        assertFrequencies(probabilities, values);
+        assertEquals(generator.getMean(), generator.getSampledMean(), 0.01 * generator.getMean());
+    }
+
+    @Test
+    void antitheticFrequenciesMatchProbabilities() {
+        double[] probabilities = probabilities(new SplittableRandom(24));
+        EmpiricalGenerator generator = generator(probabilities);
+        generator.setSeed(24);
+        generator.setAntithetic(true);
+
+        assertFrequencies(probabilities, generator.nextDoubles(DRAWS));
+    }
+
+    private static void assertFrequencies(double[] probabilities, double[] values) {
+        long[] counts = new long[BINS];
+        for (double value : values) {
+            counts[(int) value]++;
+        }
+
+        double chiSquare = 0.0;
+        int degreesOfFreedom = -1;
+        for (int bin = 0; bin < BINS; bin++) {
+            if (probabilities[bin] == 0) {
+                assertEquals(0, counts[bin], "Interval " + bin + " has zero probability.");
+                continue;
+            }
+            double expected = probabilities[bin] * values.length;
+            chiSquare += (counts[bin] - expected) * (counts[bin] - expected) / expected;
+            degreesOfFreedom++;
+        }
+
+        // Four standard deviations of the chi-square distribution above its mean.
+        double critical = degreesOfFreedom + 4 * Math.sqrt(2.0 * degreesOfFreedom);
+        assertTrue(chiSquare < critical, "Chi-square " + chiSquare + " on " + degreesOfFreedom + " degrees of freedom");
+    }
+
+    // Unit intervals [i, i + 1) with random weights, every seventh of them never drawn.
+    private static double[] probabilities(SplittableRandom random) {
+        double[] probabilities = new double[BINS];
+        double sum = 0.0;
+        for (int bin = 0; bin < BINS; bin++) {
+            probabilities[bin] = bin % 7 == 3 ? 0.0 : 0.05 + random.nextDouble();
+            sum += probabilities[bin];
+        }
+        for (int bin = 0; bin < BINS; bin++) {
+            probabilities[bin] /= sum;
+        }
+        return probabilities;
+    }
+
+    private static EmpiricalGenerator generator(double[] probabilities) {
+        double[] minValues = new double[BINS];
+        double[] maxValues = new double[BINS];
+        for (int bin = 0; bin < BINS; bin++) {
+            minValues[bin] = bin;
+            maxValues[bin] = bin + 1;
+        }
+        return new EmpiricalGenerator(minValues, maxValues, probabilities, Generator.Mode.CONTINUOUS);
+    }
+}
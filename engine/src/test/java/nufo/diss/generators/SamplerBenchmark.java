@@ -0,0 +1,59 @@
+package nufo.diss.generators;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Times the sampling algorithms of the exponential and triangular generators in samples per second, one value at a
+ * time and in blocks. Their distributions are checked by {@link SamplerTest}. It is kept with the tests, out of the
+ * engine artifact, and runs from the test classpath, e.g.
+ * {@code java -cp engine/target/classes:engine/target/test-classes nufo.diss.generators.SamplerBenchmark}.
+ */
+public class SamplerBenchmark {
+    private static final long SEED = 20240101L;
+    private static final int BLOCK_SIZE = BufferedGenerator.DEFAULT_BLOCK_SIZE;
+
+    public static void main(String[] args) {
+        int timedSamples = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+
+        double lambda = 2.0 / 3600.0;
+        for (ExponentialGenerator.Algorithm algorithm : ExponentialGenerator.Algorithm.values()) {
+            time("exponential " + algorithm, () -> new ExponentialGenerator(lambda, algorithm), timedSamples);
+        }
+        for (TriangularGenerator.Algorithm algorithm : TriangularGenerator.Algorithm.values()) {
+            time("triangular " + algorithm, () -> new TriangularGenerator(60, 480, 120, algorithm), timedSamples);
+        }
+    }
+
+    private static void time(String name, Supplier<Generator> factory, int timedSamples) {
+        Generator generator = factory.get();
+        double[] block = new double[BLOCK_SIZE];
+        int blocks = timedSamples / BLOCK_SIZE;
+
+        // Warm-up runs let the JIT compile the sampler before the timed one.
+        double singleRate = 0.0;
+        double blockRate = 0.0;
+        for (int run = 0; run < 3; run++) {
+            generator.setSeed(SEED + run);
+            double sum = 0.0;
+            long start = System.nanoTime();
+            for (int i = 0; i < timedSamples; i++) {
+                sum += generator.nextDouble();
+            }
+            singleRate = timedSamples / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            for (int i = 0; i < blocks; i++) {
+                generator.fill(block);
+                sum += block[0];
+            }
+            blockRate = (double) blocks * BLOCK_SIZE / ((System.nanoTime() - start) / 1e9);
+            if (Double.isNaN(sum)) {
+                throw new IllegalStateException("Sampler returned NaN.");
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%-24s %.1f M samples/s one at a time, %.1f M samples/s in blocks of %d%n",
+                name, singleRate / 1e6, blockRate / 1e6, BLOCK_SIZE);
+    }
+}
@@ -0,0 +1,124 @@
+package nufo.diss.generators;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplerTest {
+    private static final long SEED = 20240101L;
+    private static final int SAMPLE_SIZE = 1_000_000;
+    // The Kolmogorov-Smirnov test fails a correct sampler with probability 0.001.
+    private static final double SIGNIFICANCE = 0.001;
+    private static final double LAMBDA = 2.0 / 3600.0;
+    private static final double MIN = 60;
+    private static final double MAX = 480;
+    private static final double MODUS = 120;
+
+    @ParameterizedTest
+    @EnumSource(ExponentialGenerator.Algorithm.class)
+    void exponentialValuesFollowDistribution(ExponentialGenerator.Algorithm algorithm) {
+        for (boolean antithetic : new boolean[]{false, true}) {
+            assertDistribution(new ExponentialGenerator(LAMBDA, algorithm), antithetic,
+                    x -> x <= 0 ? 0.0 : -Math.expm1(-LAMBDA * x));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TriangularGenerator.Algorithm.class)
+    void triangularValuesFollowDistribution(TriangularGenerator.Algorithm algorithm) {
+        for (boolean antithetic : new boolean[]{false, true}) {
+            assertDistribution(new TriangularGenerator(MIN, MAX, MODUS, algorithm), antithetic, x -> {
+                if (x <= MIN) {
+                    return 0.0;
+                }
+                if (x >= MAX) {
+                    return 1.0;
+                }
+                return x <= MODUS
+                        ? (x - MIN) * (x - MIN) / ((MAX - MIN) * (MODUS - MIN))
+                        : 1 - (MAX - x) * (MAX - x) / ((MAX - MIN) * (MAX - MODUS));
+            });
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExponentialGenerator.Algorithm.class)
+    void exponentialTailFollowsDistribution(ExponentialGenerator.Algorithm algorithm) {
+        // The ziggurat samples beyond R = 7.7 on a path of its own, the Kolmogorov-Smirnov test hardly sees it.
+        double[] thresholds = {6, 8, 12};
+        int draws = 20_000_000;
+        for (boolean antithetic : new boolean[]{false, true}) {
+            Generator generator = new ExponentialGenerator(1.0, algorithm);
+            generator.setSeed(SEED);
+            generator.setAntithetic(antithetic);
+
+            long[] counts = new long[thresholds.length];
+            for (int i = 0; i < draws; i++) {
+                double value = generator.nextDouble();
+                for (int j = 0; j < thresholds.length; j++) {
+                    if (value > thresholds[j]) {
+                        counts[j]++;
+                    }
+                }
+            }
+
+            for (int j = 0; j < thresholds.length; j++) {
+                double expected = draws * Math.exp(-thresholds[j]);
+                assertEquals(expected, counts[j], 4 * Math.sqrt(expected),
+                        algorithm + (antithetic ? " antithetic" : "") + " values above " + thresholds[j]);
+            }
+        }
+    }
+
+    private static void assertDistribution(Generator generator, boolean antithetic, DoubleUnaryOperator cdf) {
+        generator.setSeed(SEED);
+        generator.setAntithetic(antithetic);
+        double[] values = generator.nextDoubles(SAMPLE_SIZE);
+        Arrays.sort(values);
+
+        double statistic = 0.0;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            double p = cdf.applyAsDouble(values[i]);
+            statistic = Math.max(statistic, Math.max((i + 1.0) / SAMPLE_SIZE - p, p - (double) i / SAMPLE_SIZE));
+        }
+        double pValue = kolmogorovSurvival((Math.sqrt(SAMPLE_SIZE) + 0.12 + 0.11 / Math.sqrt(SAMPLE_SIZE)) * statistic);
+
+        assertTrue(pValue > SIGNIFICANCE, (antithetic ? "Antithetic " : "") + "KS D = " + statistic + ", p = " + pValue);
+        double standardError = Math.sqrt(variance(values) / SAMPLE_SIZE);
+        assertEquals(generator.getMean(), generator.getSampledMean(), 4 * standardError);
+    }
+
+    private static double variance(double[] values) {
+        double mean = 0.0;
+        for (double value : values) {
+            mean += value;
+        }
+        mean /= values.length;
+        double sum = 0.0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return sum / (values.length - 1);
+    }
+
+    // Probability that the Kolmogorov distribution exceeds x.
+    private static double kolmogorovSurvival(double x) {
+        if (x < 0.2) {
+            return 1.0;
+        }
+        double sum = 0.0;
+        for (int k = 1; k <= 100; k++) {
+            double term = Math.exp(-2.0 * k * k * x * x);
+            sum += (k % 2 == 1 ? term : -term);
+            if (term < 1e-16) {
+                break;
+            }
+        }
+        return Math.min(1.0, Math.max(0.0, 2 * sum));
+    }
+}
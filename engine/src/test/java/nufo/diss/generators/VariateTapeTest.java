@@ -0,0 +1,72 @@
+package nufo.diss.generators;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariateTapeTest {
+    private static final int STREAM = 3;
+    private static final int REPLICATIONS = 60;
+    private static final int MAX_VALUES = 300;
+
+    @Test
+    void tapeMappedInChunksReplaysRecordedValues(@TempDir Path directory) throws IOException {
+        List<double[]> recorded = record(directory);
+
+        // Chunks of a few segments each, the segments often do not fit into the rest of a chunk.
+        long segmentSize = VariateTape.SEGMENT_HEADER_SIZE + (long) MAX_VALUES * Double.BYTES;
+        for (long chunkSize : new long[]{VariateTape.CHUNK_SIZE, segmentSize, 3 * segmentSize + 5}) {
+            VariateTape tape = VariateTape.open(directory, STREAM, chunkSize);
+            assertEquals(REPLICATIONS, tape.getNumberOfReplications());
+            for (int replication = 0; replication < REPLICATIONS; replication++) {
+                DoubleBuffer values = tape.getValues(replication);
+                double[] replayed = new double[values.remaining()];
+                values.get(replayed);
+                assertArrayEquals(recorded.get(replication), replayed, "chunk size " + chunkSize + ", replication " + replication);
+            }
+        }
+    }
+
+    @Test
+    void segmentLargerThanChunkIsRejected(@TempDir Path directory) throws IOException {
+        record(directory);
+
+        assertThrows(IOException.class, () -> VariateTape.open(directory, STREAM, VariateTape.SEGMENT_HEADER_SIZE + 16 * Double.BYTES));
+    }
+
+    // Two threads recording alternate replications, each replication with a random number of values.
+    private static List<double[]> record(Path directory) {
+        SplittableRandom random = new SplittableRandom(25);
+        RecordingGenerator[] parts = new RecordingGenerator[2];
+        for (int part = 0; part < parts.length; part++) {
+            parts[part] = new RecordingGenerator(new ExponentialGenerator(1.0), directory, STREAM, part);
+            parts[part].setSeed(25 + part);
+        }
+
+        List<double[]> recorded = new ArrayList<>();
+        for (int replication = 0; replication < REPLICATIONS; replication++) {
+            RecordingGenerator generator = parts[replication % parts.length];
+            generator.startReplication(replication);
+            double[] values = new double[random.nextInt(MAX_VALUES + 1)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = generator.nextDouble();
+            }
+            generator.finishReplication();
+            recorded.add(values);
+        }
+        for (RecordingGenerator part : parts) {
+            part.close();
+        }
+        return recorded;
+    }
+}
@@ -0,0 +1,75 @@
+package nufo.diss;
+
+import javax.swing.*;
+import java.time.Duration;
+
+public class Controller {
+    private EventSimulation simulation;
+    private final GUI gui;
+
+    public Controller(GUI gui) {
+        this.gui = gui;
+    }
+
+    /**
+     * Precision is the relative confidence interval half-width and time budget the wall-clock seconds after which the
+     * replications stop early, NaN turns either off. The number of replications is always the upper bound.
+     */
+    public void startSimulation(int numberOfReplications, EventSimulation.TimeMode timeMode, int groupASize, int groupBSize, int groupCSize, EventSimulation.TimeMultiplier timeMultiplier, double precision, double timeBudget) {
+        simulation = new FurnitureSimulation(numberOfReplications, timeMode, 249 * 8 * 60 * 60 - 1, groupASize, groupBSize, groupCSize);
+        simulation.setTimeMultiplier(timeMultiplier);
+        simulation.setStoppingPolicy(createStoppingPolicy(precision, timeBudget));
+        gui.subscribeTo(simulation);
+        if (timeMode == EventSimulation.TimeMode.VIRTUAL_TIME) {
+            simulation.setParallelism(Runtime.getRuntime().availableProcessors());
+        }
+
+        EventSimulation startedSimulation = simulation;
+        Thread simulationThread = new Thread(() -> {
+            try {
+                startedSimulation.run();
+            } catch (RuntimeException e) {
+                SwingUtilities.invokeLater(() -> gui.showSimulationError(e));
+                throw e;
+            }
+        });
+        simulationThread.start();
+    }
+
+    private static StoppingPolicy createStoppingPolicy(double precision, double timeBudget) {
+        Duration budget = Double.isNaN(timeBudget) ? null : Duration.ofMillis((long) (timeBudget * 1000));
+        if (!Double.isNaN(precision) && budget != null) {
+            return StoppingPolicy.relativePrecisionOrTimeBudget(precision, budget);
+        }
+        if (!Double.isNaN(precision)) {
+            return StoppingPolicy.relativePrecision(precision);
+        }
+        if (budget != null) {
+            return StoppingPolicy.timeBudget(budget);
+        }
+        return StoppingPolicy.fixedReplications();
+    }
+
+    public void stopSimulation() {
+        simulation.stop();
+    }
+
+    public void pauseSimulation() {
+        simulation.pause();
+    }
+
+    public void resumeSimulation() {
+        simulation.resume();
+    }
+
+    public void setSimulationTimeMultiplier(EventSimulation.TimeMultiplier multiplier) {
+        if (simulation == null) return;
+
+        simulation.setTimeMultiplier(multiplier);
+    }
+
+    public void setSimulationExecutionMode(EventSimulation.TimeMode mode) {
+        if (simulation == null) return;
+        simulation.setExecutionMode(mode);
+    }
+}
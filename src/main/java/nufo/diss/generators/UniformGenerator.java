@@ -1,27 +0,0 @@
-package nufo.diss.generators;
-
-import java.util.Random;
-
-public class UniformGenerator extends Generator {
-    private final Random rand;
-    private final double min;
-    private final double max;
-
-    public UniformGenerator(double min, double max, Mode mode) {
-        super(mode);
-
-        this.min = min;
-        this.max = max;
-        rand = new Random(SeedGenerator.getInstance().nextInt());
-    }
-
-    @Override
-    public int nextInt() {
-        return rand.nextInt((int)min, (int)max);
-    }
-
-    @Override
-    public double nextDouble() {
-        return rand.nextDouble() * (max - min) + min;
-    }
-}